@@ -6,13 +6,14 @@ import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
 import com.artemsirosh.lite.sftp.port.outbound.UnregisterItemPort;
 import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ReplaceItemPort;
 import org.springframework.lang.NonNull;
 
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class ItemRepository implements GetItemByIdPort, RegisterItemPort, UnregisterItemPort {
+public class ItemRepository implements GetItemByIdPort, RegisterItemPort, UnregisterItemPort, ReplaceItemPort {
 
     private final Map<ItemId, Item> storage;
 
@@ -40,6 +41,19 @@ public class ItemRepository implements GetItemByIdPort, RegisterItemPort, Unregi
         }
     }
 
+    @Override
+    public boolean replace(@NonNull final Item item, final long expectedVersion) {
+        final Item result = storage.compute(item.getId(), (id, previous) -> {
+            if (previous == null) {
+                throw new ItemNotRegistered(id);
+            }
+
+            return previous.getVersion() == expectedVersion ? item : previous;
+        });
+
+        return result == item;
+    }
+
     @Override
     public void unregister(@NonNull ItemId id) {
         if (storage.containsKey(id)) {
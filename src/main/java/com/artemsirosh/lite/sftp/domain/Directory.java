@@ -3,12 +3,14 @@ package com.artemsirosh.lite.sftp.domain;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Implementation of {@link Item} represents kind of items that can contain
@@ -22,9 +24,24 @@ public class Directory implements Item {
     String name;
 
     /**
-     * Set of {@link Item}s that belongs to current Directory.
+     * Set of {@link Item}s that belongs to current Directory, ordered by name.
      */
-    Set<ChildItem> children;
+    DirectoryChildren children;
+
+    /**
+     * Version of registered item, see {@link Item#getVersion()}.
+     */
+    @EqualsAndHashCode.Exclude
+    long version;
+
+    /**
+     * Path computed on first request, renamed or moved item is new instance
+     * with its own path.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    List<String> path = ItemPaths.childPath(parent);
 
     public static Directory.Builder builder() {
         return new Builder();
@@ -51,39 +68,63 @@ public class Directory implements Item {
         return name;
     }
 
+    @Override
+    public List<String> calculatePath() {
+        return getPath();
+    }
+
+    /**
+     * View of child kept by {@link DirectoryChildren}, child item itself is
+     * taken from there on request.
+     */
     @Value
-    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
     public static class ChildItem implements Item {
 
         @EqualsAndHashCode.Exclude
         ItemId id;
 
-        @EqualsAndHashCode.Exclude
-        Item parent;
-
         @EqualsAndHashCode.Include
         String name;
 
         @EqualsAndHashCode.Exclude
         boolean isDirectory;
 
+        @ToString.Exclude
         @EqualsAndHashCode.Exclude
-        Directory directory;
+        @Getter(AccessLevel.NONE)
+        DirectoryChildren source;
 
+        @ToString.Exclude
         @EqualsAndHashCode.Exclude
-        File fileItem;
+        @Getter(AccessLevel.NONE)
+        int index;
+
+        @Override
+        public Item getParent() {
+            final Item item = source.getItem(index);
+            return item != null ? item.getParent() : null;
+        }
 
         @Override
         public boolean isDirectory() {
             return isDirectory;
         }
 
+        @Override
+        public List<String> calculatePath() {
+            final Item item = source.getItem(index);
+            return item != null ? item.calculatePath() : List.of();
+        }
+
         public Optional<File> asFile() {
-            return Optional.ofNullable(fileItem);
+            final Item item = source.getItem(index);
+            return item instanceof File ? Optional.of((File) item) : Optional.empty();
         }
 
         public Optional<Directory> asDirectory() {
-            return Optional.ofNullable(directory);
+            final Item item = source.getItem(index);
+            return item instanceof Directory ? Optional.of((Directory) item) : Optional.empty();
         }
     }
 
@@ -93,7 +134,9 @@ public class Directory implements Item {
         ItemId id = ItemId.newInstanceUUID();
         Item parent;
         String name;
-        Set<ChildItem> children = new HashSet<>();
+        List<Item> items = new ArrayList<>();
+        DirectoryChildren children;
+        long version;
 
         public Builder id(final ItemId id) {
             this.id = id;
@@ -110,27 +153,18 @@ public class Directory implements Item {
             return this;
         }
 
+        public Builder version(final long version) {
+            this.version = version;
+            return this;
+        }
+
         public Builder addItem(final Directory item) {
-            children.add(new ChildItem(
-                    item.getId(),
-                    item.getParent(),
-                    item.getName(),
-                    item.isDirectory(),
-                    item,
-                    null
-            ));
+            items.add(item);
             return this;
         }
 
         public Builder addItem(final File item) {
-            children.add(new ChildItem(
-                    item.getId(),
-                    item.getParent(),
-                    item.getName(),
-                    item.isDirectory(),
-                    null,
-                    item
-            ));
+            items.add(item);
             return this;
         }
 
@@ -148,8 +182,18 @@ public class Directory implements Item {
             return this;
         }
 
+        /**
+         * Sets children, e.g. {@link DirectoryChildren#lazy lazy} ones,
+         * items added to builder are ignored then.
+         */
+        public Builder children(final DirectoryChildren children) {
+            this.children = children;
+            return this;
+        }
+
         public Directory build() {
-            return new Directory(id, parent, name, children);
+            return new Directory(id, parent, name, children != null ? children : DirectoryChildren.of(items),
+                    version);
         }
     }
 }
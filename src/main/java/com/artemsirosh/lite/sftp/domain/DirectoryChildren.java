@@ -0,0 +1,256 @@
+package com.artemsirosh.lite.sftp.domain;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Immutable set of {@link Directory} children ordered by name. Children are
+ * kept in parallel arrays: sorted names, identifiers packed into longs when
+ * they are UUIDs and bit set of directory flags, {@link Directory.ChildItem}
+ * views are created on access. Lookup by name is binary search.
+ * <p>
+ * Children either retain items they were created from, or keep only names,
+ * identifiers and flags and load items on demand, see
+ * {@link #lazy(List, List, BitSet, Function)}.
+ */
+public final class DirectoryChildren extends AbstractSet<Directory.ChildItem> {
+
+    private static final DirectoryChildren EMPTY = new DirectoryChildren(new String[0], null, new ItemId[0],
+            new BitSet(), new Item[0], null);
+
+    private final String[] names;
+
+    /**
+     * Two longs per child, {@code null} when some of identifiers aren't UUIDs.
+     */
+    @Nullable
+    private final long[] idBits;
+
+    /**
+     * Identifiers of children, {@code null} when they are packed into
+     * {@link #idBits}.
+     */
+    @Nullable
+    private final ItemId[] ids;
+    private final BitSet directories;
+
+    @Nullable
+    private final Item[] items;
+
+    @Nullable
+    private final Function<ItemId, Item> loader;
+
+    private DirectoryChildren(final String[] names, @Nullable final long[] idBits, @Nullable final ItemId[] ids,
+                              final BitSet directories, @Nullable final Item[] items,
+                              @Nullable final Function<ItemId, Item> loader) {
+        this.names = names;
+        this.idBits = idBits;
+        this.ids = ids;
+        this.directories = directories;
+        this.items = items;
+        this.loader = loader;
+    }
+
+    public static DirectoryChildren empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates children retaining given items. When several items have the
+     * same name, first one is kept.
+     */
+    public static DirectoryChildren of(@NonNull final Collection<? extends Item> items) {
+        if (items.isEmpty()) {
+            return EMPTY;
+        }
+
+        final List<? extends Item> sorted = sortUnique(items);
+        final int size = sorted.size();
+        final String[] names = new String[size];
+        final List<ItemId> ids = new ArrayList<>(size);
+        final BitSet directories = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            final Item item = sorted.get(i);
+            names[i] = item.getName();
+            ids.add(item.getId());
+            directories.set(i, item.isDirectory());
+        }
+
+        return create(names, ids, directories, sorted.toArray(new Item[0]), null);
+    }
+
+    /**
+     * Creates children from names, identifiers and kinds, items are loaded
+     * by their identifiers when needed, so no item is held per child. Names
+     * already sorted, e.g. taken from registry's children index, are used
+     * as is, otherwise they are sorted. When several children have the same
+     * name, first one is kept.
+     *
+     * @param names       names of children
+     * @param ids         identifiers of children, in order of names
+     * @param directories flags of children being directories, by index of
+     *                    name
+     * @param loader      finds item by its identifier, e.g. registry lookup
+     */
+    public static DirectoryChildren lazy(@NonNull final List<String> names, @NonNull final List<ItemId> ids,
+                                         @NonNull final BitSet directories,
+                                         @NonNull final Function<ItemId, Item> loader) {
+        if (names.size() != ids.size()) {
+            throw new IllegalArgumentException("Expected " + names.size() + " ids, but got " + ids.size());
+        }
+
+        if (isSortedUnique(names)) {
+            return create(names.toArray(new String[0]), ids, (BitSet) directories.clone(), null, loader);
+        }
+
+        final Integer[] order = new Integer[names.size()];
+        Arrays.setAll(order, index -> index);
+        Arrays.sort(order, Comparator.comparing(names::get));
+        final List<String> sortedNames = new ArrayList<>(order.length);
+        final List<ItemId> sortedIds = new ArrayList<>(order.length);
+        final BitSet sortedDirectories = new BitSet(order.length);
+        for (final int index : order) {
+            final String name = names.get(index);
+            if (sortedNames.isEmpty() || !sortedNames.get(sortedNames.size() - 1).equals(name)) {
+                sortedDirectories.set(sortedNames.size(), directories.get(index));
+                sortedNames.add(name);
+                sortedIds.add(ids.get(index));
+            }
+        }
+
+        return create(sortedNames.toArray(new String[0]), sortedIds, sortedDirectories, null, loader);
+    }
+
+    /**
+     * Creates children which keep only names, identifiers and kinds of given
+     * items, items are loaded by their identifiers when needed.
+     *
+     * @param items  children, e.g. read from disk
+     * @param loader finds item by its identifier, e.g. registry lookup
+     */
+    public static DirectoryChildren lazy(@NonNull final Collection<? extends Item> items,
+                                         @NonNull final Function<ItemId, Item> loader) {
+        final List<String> names = new ArrayList<>(items.size());
+        final List<ItemId> ids = new ArrayList<>(items.size());
+        final BitSet directories = new BitSet(items.size());
+        for (final Item item : items) {
+            directories.set(names.size(), item.isDirectory());
+            names.add(item.getName());
+            ids.add(item.getId());
+        }
+
+        return lazy(names, ids, directories, loader);
+    }
+
+    /**
+     * Finds child by its name.
+     */
+    public Optional<Directory.ChildItem> find(@NonNull final String name) {
+        final int index = Arrays.binarySearch(names, name);
+        return index >= 0 ? Optional.of(view(index)) : Optional.empty();
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        return object instanceof Directory.ChildItem
+                && Arrays.binarySearch(names, ((Directory.ChildItem) object).getName()) >= 0;
+    }
+
+    @NonNull
+    @Override
+    public Iterator<Directory.ChildItem> iterator() {
+        return new Iterator<>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < names.length;
+            }
+
+            @Override
+            public Directory.ChildItem next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return view(next++);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns child item, loading it when children are lazy.
+     */
+    @Nullable
+    Item getItem(final int index) {
+        return items != null ? items[index] : loader.apply(getId(index));
+    }
+
+    private ItemId getId(final int index) {
+        return idBits != null ? ItemId.of(new UUID(idBits[index * 2], idBits[index * 2 + 1])) : ids[index];
+    }
+
+    private Directory.ChildItem view(final int index) {
+        return new Directory.ChildItem(getId(index), names[index], directories.get(index), this, index);
+    }
+
+    private static DirectoryChildren create(final String[] names, final List<ItemId> ids, final BitSet directories,
+                                            @Nullable final Item[] items,
+                                            @Nullable final Function<ItemId, Item> loader) {
+        final boolean packed = ids.stream().allMatch(id -> id.asUUID().isPresent());
+        if (!packed) {
+            return new DirectoryChildren(names, null, ids.toArray(new ItemId[0]), directories, items, loader);
+        }
+
+        final long[] idBits = new long[ids.size() * 2];
+        for (int i = 0; i < ids.size(); i++) {
+            final UUID uuid = ids.get(i).asUUID().orElseThrow();
+            idBits[i * 2] = uuid.getMostSignificantBits();
+            idBits[i * 2 + 1] = uuid.getLeastSignificantBits();
+        }
+
+        return new DirectoryChildren(names, idBits, null, directories, items, loader);
+    }
+
+    private static boolean isSortedUnique(final List<String> names) {
+        for (int i = 1; i < names.size(); i++) {
+            if (names.get(i - 1).compareTo(names.get(i)) >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static List<? extends Item> sortUnique(final Collection<? extends Item> items) {
+        final List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(Item::getName));
+        int size = 0;
+        for (final Item item : sorted) {
+            if (size == 0 || !sorted.get(size - 1).getName().equals(item.getName())) {
+                sorted.set(size++, item);
+            }
+        }
+
+        return sorted.subList(0, size);
+    }
+}
@@ -0,0 +1,65 @@
+package com.artemsirosh.lite.sftp.domain;
+
+import lombok.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Page of {@link Directory}'s content. Items are ordered by name, listing
+ * continues from {@link #getNextCursor()} if it's present.
+ */
+@Value
+public class DirectoryListingPage {
+
+    Directory directory;
+
+    /**
+     * Items of page ordered by name.
+     */
+    List<Item> items;
+
+    @Nullable
+    String nextCursor;
+
+    /**
+     * Creates a page. Cursor pointing after last item is set when listing
+     * has more items.
+     */
+    @NonNull
+    public static DirectoryListingPage of(@NonNull final Directory directory, @NonNull final List<Item> items,
+                                          final boolean hasMore) {
+        final String nextCursor = hasMore && !items.isEmpty()
+                ? encodeCursor(items.get(items.size() - 1).getName())
+                : null;
+
+        return new DirectoryListingPage(directory, List.copyOf(items), nextCursor);
+    }
+
+    /**
+     * Returns opaque cursor of the next page, absent for the last page.
+     */
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    /**
+     * Returns name of item after which page identified by cursor starts.
+     *
+     * @throws IllegalArgumentException if cursor is malformed
+     */
+    @NonNull
+    public static String decodeCursor(@NonNull final String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static String encodeCursor(final String name) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,10 +2,14 @@ package com.artemsirosh.lite.sftp.domain;
 
 import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Implementation of {@link Item} represents a generic file system item holding
@@ -26,8 +30,28 @@ public class File implements Item {
      */
     Instant modifiedDate;
 
+    /**
+     * Version of registered item, see {@link Item#getVersion()}.
+     */
+    @EqualsAndHashCode.Exclude
+    long version;
+
+    /**
+     * Path computed on first request, renamed or moved item is new instance
+     * with its own path.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    List<String> path = ItemPaths.childPath(parent);
+
     @Override
     public boolean isDirectory() {
         return false;
     }
+
+    @Override
+    public List<String> calculatePath() {
+        return getPath();
+    }
 }
@@ -1,5 +1,6 @@
 package com.artemsirosh.lite.sftp.domain;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -30,11 +31,23 @@ public interface Item {
      */
     boolean isDirectory();
 
+    /**
+     * Returns version of item, incremented each time registered item is
+     * replaced, see {@link com.artemsirosh.lite.sftp.port.outbound.ReplaceItemPort}.
+     * Version doesn't take part in item equality.
+     *
+     * @return version, {@code 0} for items which don't track versions
+     */
+    default long getVersion() {
+        return 0L;
+    }
+
     /**
      * Returns sequence of item names representing a path to item. It starts
-     * from parent name to current item name.
+     * from parent name to current item name. Items are immutable, so
+     * implementations may compute path once and return it afterwards.
      *
-     * @return path to current item
+     * @return immutable path to current item
      */
     default List<String> calculatePath() {
         final var path = new LinkedList<String>();
@@ -42,6 +55,6 @@ public interface Item {
             path.addFirst(i.getName());
         }
 
-        return path;
+        return Collections.unmodifiableList(path);
     }
 }
@@ -1,42 +1,70 @@
 package com.artemsirosh.lite.sftp.domain;
 
 import com.google.common.collect.ImmutableList;
-import lombok.Value;
 import org.springframework.lang.NonNull;
 
-import java.nio.ByteBuffer;
-import java.nio.charset.CharacterCodingException;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Base64;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 /**
  * Item's identifier.
+ * <p>
+ * Identifier is either a path of names or a UUID. UUID identifiers are
+ * kept compact as two longs with precomputed hash, so they are created
+ * w/o intermediate collections and compared w/o iterating strings.
+ * Factories canonicalize identifiers: single element path holding UUID
+ * in its canonical lower case form always becomes compact identifier, so
+ * both forms of the same identifier are equal.
  */
-@Value
-public class ItemId {
+public final class ItemId {
 
     private static final String DELIMITER = "/";
+    private static final int UUID_LENGTH = 36;
 
-    List<CharSequence> path;
+    /**
+     * Path of identifier, {@code null} for compact UUID identifier until
+     * it's requested.
+     */
+    private volatile List<CharSequence> path;
+
+    private final boolean compact;
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final int hash;
 
     private ItemId(final List<CharSequence> path) {
         this.path = path;
+        this.compact = false;
+        this.mostSignificantBits = 0L;
+        this.leastSignificantBits = 0L;
+        this.hash = path.hashCode();
+    }
+
+    private ItemId(final long mostSignificantBits, final long leastSignificantBits) {
+        this.compact = true;
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        final long bits = mostSignificantBits ^ leastSignificantBits;
+        this.hash = (int) (bits >> 32) ^ (int) bits;
     }
 
     /**
      * Creates a new ItemId using {@link UUID}.
      */
     public static ItemId newInstanceUUID() {
-        return ItemId.of(UUID.randomUUID().toString());
+        return ItemId.of(UUID.randomUUID());
+    }
+
+    /**
+     * Creates a compact ItemId holding given UUID.
+     */
+    @NonNull
+    public static ItemId of(@NonNull final UUID uuid) {
+        return new ItemId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
 
     /**
@@ -49,18 +77,40 @@ public class ItemId {
 
     @NonNull
     public static ItemId of(@NonNull final CharSequence pathElement, final CharSequence... pathElements) {
-        final List<CharSequence> path = Stream.concat(Stream.of(pathElement), Arrays.stream(pathElements))
-                .collect(ImmutableList.toImmutableList());
+        if (pathElements.length == 0) {
+            final ItemId compactId = parseCompact(pathElement);
+            if (compactId != null) {
+                return compactId;
+            }
 
-        return new ItemId(path);
+            return new ItemId(ImmutableList.of(pathElement.toString()));
+        }
+
+        final var path = ImmutableList.<CharSequence>builderWithExpectedSize(pathElements.length + 1)
+                .add(pathElement.toString());
+        for (final CharSequence element : pathElements) {
+            path.add(element.toString());
+        }
+
+        return new ItemId(path.build());
     }
 
     @NonNull
     public static ItemId of(@NonNull final Iterable<CharSequence> pathElements) {
-        final List<CharSequence> path = StreamSupport.stream(pathElements.spliterator(), false)
-                .collect(ImmutableList.toImmutableList());
+        final Iterator<CharSequence> elements = pathElements.iterator();
+        if (elements.hasNext()) {
+            final CharSequence first = elements.next();
+            if (!elements.hasNext()) {
+                return ItemId.of(first);
+            }
+        }
+
+        final var path = ImmutableList.<CharSequence>builder();
+        for (final CharSequence element : pathElements) {
+            path.add(element.toString());
+        }
 
-        return new ItemId(path);
+        return new ItemId(path.build());
     }
 
     @NonNull
@@ -69,10 +119,102 @@ public class ItemId {
                 .decode(encodedPath);
 
         final var path = new String(decodedPath, StandardCharsets.UTF_8).split(DELIMITER);
-        return new ItemId(ImmutableList.copyOf(path));
+        return path.length == 1 ? ItemId.of(path[0]) : new ItemId(ImmutableList.copyOf(path));
+    }
+
+    /**
+     * Returns path of identifier. Path of compact identifier is its UUID
+     * as single element.
+     */
+    public List<CharSequence> getPath() {
+        List<CharSequence> result = path;
+        if (result == null) {
+            result = ImmutableList.of(new UUID(mostSignificantBits, leastSignificantBits).toString());
+            path = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns UUID of compact identifier, empty for path identifier.
+     */
+    public Optional<UUID> asUUID() {
+        return compact ? Optional.of(new UUID(mostSignificantBits, leastSignificantBits)) : Optional.empty();
     }
 
     public List<String> getItemPath() {
         return List.of();
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof ItemId)) {
+            return false;
+        }
+
+        final ItemId that = (ItemId) other;
+        if (hash != that.hash || compact != that.compact) {
+            return false;
+        } else if (compact) {
+            return mostSignificantBits == that.mostSignificantBits
+                    && leastSignificantBits == that.leastSignificantBits;
+        }
+
+        return path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemId(path=" + getPath() + ")";
+    }
+
+    /**
+     * Parses UUID in canonical lower case form w/o allocations.
+     *
+     * @return compact identifier or {@code null} if value isn't such UUID
+     */
+    private static ItemId parseCompact(final CharSequence value) {
+        if (value.length() != UUID_LENGTH) {
+            return null;
+        }
+
+        long mostSignificantBits = 0L;
+        long leastSignificantBits = 0L;
+        int digits = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            final char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+
+            final int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return null;
+            }
+
+            if (digits < 16) {
+                mostSignificantBits = mostSignificantBits << 4 | digit;
+            } else {
+                leastSignificantBits = leastSignificantBits << 4 | digit;
+            }
+            digits++;
+        }
+
+        return new ItemId(mostSignificantBits, leastSignificantBits);
+    }
 }
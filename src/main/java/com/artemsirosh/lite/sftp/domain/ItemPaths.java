@@ -0,0 +1,34 @@
+package com.artemsirosh.lite.sftp.domain;
+
+import com.google.common.collect.ImmutableList;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Builds item paths from path of parent, so items which memoize their path
+ * compute it once, reusing path already computed by parent.
+ */
+final class ItemPaths {
+
+    private ItemPaths() {
+    }
+
+    /**
+     * Returns path of item placed into given parent.
+     *
+     * @param parent parent of item or {@code null} for top level item
+     * @return immutable path
+     */
+    static List<String> childPath(@Nullable final Item parent) {
+        if (parent == null) {
+            return List.of();
+        }
+
+        final List<String> parentPath = parent.calculatePath();
+        return ImmutableList.<String>builderWithExpectedSize(parentPath.size() + 1)
+                .addAll(parentPath)
+                .add(parent.getName())
+                .build();
+    }
+}
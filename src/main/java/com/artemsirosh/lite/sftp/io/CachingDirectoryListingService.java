@@ -0,0 +1,297 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
+import com.artemsirosh.lite.sftp.port.outbound.InvalidateDirectoryListingPort;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps listings of recently listed directories in memory. Cache is bounded
+ * by total number of cached entries, least recently used directories are
+ * evicted first.
+ * <p>
+ * Cached listing is dropped when application changes directory, see
+ * {@link InvalidateDirectoryListingPort}, or when {@link WatchService}
+ * reports change made outside of application. Directory is watched before
+ * it's read, so change racing with caching is never lost. Cache can't drop
+ * listing which is still loading, so every invalidation also bumps
+ * generation of directory, listing loaded while generation changed isn't
+ * served from cache. Generations are striped by directory id, so their
+ * memory is bounded, invalidation of other directory of the same stripe
+ * just causes spare reload.
+ */
+@Slf4j
+class CachingDirectoryListingService implements GetDirectoryListingPort, InvalidateDirectoryListingPort {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final LocalFileSystemService delegate;
+    private final Cache<ItemId, CachedListing> listings;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Map<WatchKey, ItemId> watchedDirectories = new ConcurrentHashMap<>();
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    CachingDirectoryListingService(final LocalFileSystemService delegate, final LocalFileSystemSettings settings) {
+        this.delegate = delegate;
+        this.listings = CacheBuilder.newBuilder()
+                .maximumWeight(settings.getListingCacheSize())
+                .<ItemId, CachedListing>weigher((id, listing) -> listing.getWeight())
+                .removalListener(this::onRemoval)
+                .build();
+        try {
+            this.watchService = delegate.getRootDirectory().getFileSystem().newWatchService();
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to create watch service", exc);
+        }
+        this.watcher = new Thread(this::watch, "listing-watcher");
+        this.watcher.setDaemon(true);
+    }
+
+    void start() {
+        watcher.start();
+    }
+
+    void stop() {
+        try {
+            watchService.close();
+        } catch (IOException exc) {
+            log.warn("Unable to close watch service", exc);
+        }
+        listings.invalidateAll();
+    }
+
+    @NonNull
+    @Override
+    public DirectoryListing getListing(@NonNull final Directory directory) {
+        final CachedListing listing = getCachedListing(directory);
+        return new DirectoryListing(directory, listing.getItems());
+    }
+
+    /**
+     * Seeks cached listing to item after given name, so page is resolved
+     * in logarithmic time.
+     */
+    @NonNull
+    @Override
+    public DirectoryListingPage getListingPage(@NonNull final Directory directory, @Nullable final String afterName,
+                                               final int limit) {
+        final NavigableMap<String, Item> items = getCachedListing(directory).getItemsByName();
+        final Iterable<Item> tail = afterName == null
+                ? items.values()
+                : items.tailMap(afterName, false).values();
+
+        final Iterator<Item> iterator = tail.iterator();
+        final List<Item> page = new ArrayList<>(Math.min(limit, items.size()));
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+
+        return DirectoryListingPage.of(directory, page, iterator.hasNext());
+    }
+
+    @Override
+    public void invalidateListings(@NonNull final Item item) {
+        if (item.isDirectory() && item.getId() != null) {
+            invalidate(item.getId());
+        }
+
+        final Item parent = item.getParent();
+        if (parent != null && parent.getId() != null) {
+            invalidate(parent.getId());
+        }
+    }
+
+    private void invalidate(final ItemId directoryId) {
+        generations.incrementAndGet(stripeOf(directoryId));
+        listings.invalidate(directoryId);
+    }
+
+    private static int stripeOf(final ItemId directoryId) {
+        return (directoryId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    /**
+     * Returns cached listing, listing invalidated while it was loading is
+     * dropped. Listing loaded after this call started is returned even if
+     * it's dropped, stale one is loaded again.
+     */
+    private CachedListing getCachedListing(final Directory directory) {
+        final int stripe = stripeOf(directory.getId());
+        while (true) {
+            final long generation = generations.get(stripe);
+            final CachedListing listing = loadCachedListing(directory, generation);
+            if (listing.getGeneration() == generations.get(stripe)) {
+                return listing;
+            }
+
+            listings.asMap().remove(directory.getId(), listing);
+            if (listing.getGeneration() >= generation) {
+                return listing;
+            }
+        }
+    }
+
+    private CachedListing loadCachedListing(final Directory directory, final long generation) {
+        try {
+            return listings.get(directory.getId(), () -> loadListing(directory, generation));
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Unable to load listing of: '" + directory + "'", exc.getCause());
+        } catch (UncheckedExecutionException exc) {
+            if (exc.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exc.getCause();
+            }
+            throw exc;
+        }
+    }
+
+    private CachedListing loadListing(final Directory directory, final long generation) throws IOException {
+        final Path directoryPath = delegate.getItemPath(directory);
+        final WatchKey watchKey = directoryPath.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+        );
+        watchedDirectories.put(watchKey, directory.getId());
+
+        final var itemsByName = ImmutableSortedMap.<String, Item>naturalOrder();
+        delegate.getListing(directory).getItems().forEach(item -> itemsByName.put(item.getName(), item));
+        log.debug("Directory listing cached: {}", directoryPath);
+        return new CachedListing(watchKey, generation, itemsByName.build());
+    }
+
+    private void onRemoval(final RemovalNotification<ItemId, CachedListing> notification) {
+        final CachedListing listing = notification.getValue();
+        if (listing != null) {
+            watchedDirectories.remove(listing.getWatchKey());
+            listing.getWatchKey().cancel();
+        }
+    }
+
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ClosedWatchServiceException exc) {
+                break;
+            }
+
+            final List<WatchEvent<?>> events = watchKey.pollEvents();
+            final ItemId directoryId = watchedDirectories.get(watchKey);
+            if (directoryId != null && events.stream().anyMatch(this::isVisibleChange)) {
+                log.debug("Directory with id '{}' changed, listing invalidated", directoryId);
+                invalidate(directoryId);
+            }
+
+            if (!watchKey.reset() && directoryId != null) {
+                invalidate(directoryId);
+            }
+        }
+        log.debug("Listing watcher stopped");
+    }
+
+    private boolean isVisibleChange(final WatchEvent<?> event) {
+        return !(event.context() instanceof Path) || !LocalFileSystemService.isTemporaryFile((Path) event.context());
+    }
+
+    private static class CachedListing {
+
+        private final WatchKey watchKey;
+        private final long generation;
+        private final ImmutableSortedMap<String, Item> itemsByName;
+        private final Set<Item> items;
+
+        CachedListing(final WatchKey watchKey, final long generation,
+                      final ImmutableSortedMap<String, Item> itemsByName) {
+            this.watchKey = watchKey;
+            this.generation = generation;
+            this.itemsByName = itemsByName;
+            this.items = new ItemSet(itemsByName);
+        }
+
+        WatchKey getWatchKey() {
+            return watchKey;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+
+        NavigableMap<String, Item> getItemsByName() {
+            return itemsByName;
+        }
+
+        /**
+         * Returns items as set view of {@link #getItemsByName()}.
+         */
+        Set<Item> getItems() {
+            return items;
+        }
+
+        int getWeight() {
+            return itemsByName.size() + 1;
+        }
+    }
+
+    /**
+     * Unmodifiable set view of items keyed by name.
+     */
+    @RequiredArgsConstructor
+    private static class ItemSet extends AbstractSet<Item> {
+
+        private final ImmutableSortedMap<String, Item> itemsByName;
+
+        @Override
+        public boolean contains(final Object object) {
+            return object instanceof Item && ((Item) object).getName() != null
+                    && object.equals(itemsByName.get(((Item) object).getName()));
+        }
+
+        @NonNull
+        @Override
+        public Iterator<Item> iterator() {
+            return itemsByName.values().iterator();
+        }
+
+        @Override
+        public int size() {
+            return itemsByName.size();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Builds registry of items from catalog existing on disk. Items are
+ * registered with identifiers stored in their extended attributes when
+ * they were created, so items created before restart get their identifiers
+ * back and indexing over persisted registry re-registers the same items.
+ * Entries created bypassing the service get new identifiers, which are
+ * stored for next indexing. On file systems without extended attributes
+ * identifiers can't be stored and change on every indexing.
+ * <p>
+ * Directory tree is walked by fork/join tasks, entries of every directory
+ * are registered as one batch. Top level of catalog is indexed before
+ * {@link #index()} returns, so server could be started at once, deeper
+ * levels are indexed in background. Indexer's pool is shut down once
+ * indexing is completed, so indexer is used once.
+ */
+@Slf4j
+public class CatalogIndexer {
+
+    private final Path catalog;
+    private final RegisterItemPort registerItemPort;
+    private final ForkJoinPool pool;
+
+    public CatalogIndexer(@NonNull final Path catalog, @NonNull final RegisterItemPort registerItemPort,
+                          final int parallelism) {
+        this.catalog = catalog;
+        this.registerItemPort = registerItemPort;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Indexes top level of catalog and schedules indexing of the rest.
+     *
+     * @return future completed with indexing statistic when whole catalog
+     *         is indexed
+     */
+    @NonNull
+    public CompletableFuture<IndexProgress> index() {
+        Assert.isTrue(Files.isDirectory(catalog), "Catalog should be a directory: " + catalog);
+        log.info("Indexing catalog '{}' with parallelism {}", catalog, pool.getParallelism());
+
+        final IndexProgress progress = new IndexProgress(catalog);
+        final List<IndexDirectoryTask> subtasks = IndexDirectoryTask.indexEntries(
+                catalog, null, registerItemPort, progress
+        );
+        log.info("Top level of catalog '{}' indexed, {} items, {} directories left to index in background",
+                catalog, progress.getIndexedCount(), subtasks.size());
+
+        return CompletableFuture.supplyAsync(() -> {
+            ForkJoinTask.invokeAll(subtasks);
+            progress.completed();
+            return progress;
+        }, pool).whenComplete((result, exc) -> pool.shutdown());
+    }
+
+    /**
+     * Stops background indexing.
+     */
+    public void stop() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package com.artemsirosh.lite.sftp.io;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+
+/**
+ * Algorithm of checksum computed for file content while it's written.
+ */
+enum ChecksumAlgorithm {
+
+    /**
+     * Checksum isn't computed.
+     */
+    NONE {
+        @Override
+        ContentDigest newDigest() {
+            return ContentDigest.NONE;
+        }
+    },
+
+    /**
+     * Fast, hardware accelerated CRC-32C, four bytes big-endian.
+     */
+    CRC_32C {
+        @Override
+        ContentDigest newDigest() {
+            return ContentDigest.of(new CRC32C());
+        }
+    },
+
+    /**
+     * Cryptographic SHA-256, slower but tamper-evident.
+     */
+    SHA_256 {
+        @Override
+        ContentDigest newDigest() {
+            try {
+                return ContentDigest.of(MessageDigest.getInstance("SHA-256"));
+            } catch (NoSuchAlgorithmException exc) {
+                throw new IllegalStateException("SHA-256 isn't supported by platform", exc);
+            }
+        }
+    };
+
+    /**
+     * Name of user-defined file attribute where checksum is stored.
+     */
+    String getAttributeName() {
+        return "lite-sftp.checksum." + name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    abstract ContentDigest newDigest();
+}
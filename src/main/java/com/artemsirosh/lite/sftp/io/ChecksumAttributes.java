@@ -0,0 +1,61 @@
+package com.artemsirosh.lite.sftp.io;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+
+/**
+ * Stores content checksum in user-defined (extended) attribute of file, so
+ * it travels with file on rename and can be read without reading content.
+ * File systems without extended attributes support are tolerated:
+ * checksum is just not stored.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ChecksumAttributes {
+
+    private static final byte[] NO_CHECKSUM = new byte[]{};
+
+    static void write(final Path file, final ChecksumAlgorithm algorithm, final byte[] checksum) {
+        final var view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (algorithm == ChecksumAlgorithm.NONE || view == null) {
+            return;
+        }
+
+        try {
+            view.write(algorithm.getAttributeName(), ByteBuffer.wrap(checksum));
+        } catch (IOException | UnsupportedOperationException exc) {
+            log.debug("Unable to store checksum of '{}': {}", file, exc.toString());
+        }
+    }
+
+    /**
+     * Returns stored checksum or empty array when it's absent.
+     */
+    static byte[] read(final Path file, final ChecksumAlgorithm algorithm) {
+        final var view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (algorithm == ChecksumAlgorithm.NONE || view == null) {
+            return NO_CHECKSUM;
+        }
+
+        try {
+            final String name = algorithm.getAttributeName();
+            if (!view.list().contains(name)) {
+                return NO_CHECKSUM;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(view.size(name));
+            view.read(name, buffer);
+            return buffer.array();
+        } catch (IOException | UnsupportedOperationException exc) {
+            log.debug("Unable to read checksum of '{}': {}", file, exc.toString());
+            return NO_CHECKSUM;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.artemsirosh.lite.sftp.io;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.zip.Checksum;
+
+/**
+ * Accumulates checksum of content while it's written.
+ */
+interface ContentDigest {
+
+    /**
+     * Digest which computes nothing.
+     */
+    ContentDigest NONE = new ContentDigest() {
+        @Override
+        public void update(final ByteBuffer buffer) {
+        }
+
+        @Override
+        public byte[] getValue() {
+            return new byte[]{};
+        }
+    };
+
+    /**
+     * Updates digest with remaining bytes of buffer. Buffer's position
+     * isn't changed.
+     */
+    void update(ByteBuffer buffer);
+
+    /**
+     * Returns checksum of all passed bytes.
+     */
+    byte[] getValue();
+
+    static ContentDigest of(final Checksum checksum) {
+        return new ContentDigest() {
+            @Override
+            public void update(final ByteBuffer buffer) {
+                checksum.update(buffer.duplicate());
+            }
+
+            @Override
+            public byte[] getValue() {
+                return ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).array();
+            }
+        };
+    }
+
+    static ContentDigest of(final MessageDigest messageDigest) {
+        return new ContentDigest() {
+            @Override
+            public void update(final ByteBuffer buffer) {
+                messageDigest.update(buffer.duplicate());
+            }
+
+            @Override
+            public byte[] getValue() {
+                return messageDigest.digest();
+            }
+        };
+    }
+}
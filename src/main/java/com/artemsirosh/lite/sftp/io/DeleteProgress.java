@@ -0,0 +1,60 @@
+package com.artemsirosh.lite.sftp.io;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks progress of recursive deletion shared by all {@link DeleteTreeTask}s
+ * of one tree. Failures are collected instead of aborting the walk.
+ */
+@Slf4j
+class DeleteProgress {
+
+    private static final long REPORT_INTERVAL = 10_000L;
+    private static final int MAX_KEPT_FAILURES = 100;
+
+    private final Path root;
+    private final AtomicLong deletedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+
+    DeleteProgress(final Path root) {
+        this.root = root;
+    }
+
+    void deleted(final Path path) {
+        final long count = deletedCount.incrementAndGet();
+        if (count % REPORT_INTERVAL == 0) {
+            log.info("Deleting '{}': {} entries deleted, {} failed", root, count, failedCount.get());
+        }
+    }
+
+    void failed(final Path path, final IOException exc) {
+        log.warn("Unable to delete '{}': {}", path, exc.toString());
+        if (failedCount.incrementAndGet() <= MAX_KEPT_FAILURES) {
+            failures.add(exc);
+        }
+    }
+
+    long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns first collected failures, at most {@value #MAX_KEPT_FAILURES}.
+     */
+    List<IOException> getFailures() {
+        return new ArrayList<>(failures);
+    }
+}
@@ -0,0 +1,71 @@
+package com.artemsirosh.lite.sftp.io;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Deletes directory with all its content. Every subdirectory is deleted by
+ * a forked task, so sibling subtrees are removed in parallel. Symbolic links
+ * are deleted, not followed.
+ * <p>
+ * Result of task tells whether whole subtree was deleted. When some entry
+ * can't be deleted, failure is reported to {@link DeleteProgress}, the rest
+ * of subtree is still processed and only directories containing it remain.
+ */
+class DeleteTreeTask extends RecursiveTask<Boolean> {
+
+    private final Path directory;
+    private final DeleteProgress progress;
+
+    DeleteTreeTask(final Path directory, final DeleteProgress progress) {
+        this.directory = directory;
+        this.progress = progress;
+    }
+
+    @Override
+    protected Boolean compute() {
+        boolean deletedAll = true;
+        final List<DeleteTreeTask> subtasks = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (final Path entry : entries) {
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    final var subtask = new DeleteTreeTask(entry, progress);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                } else {
+                    deletedAll &= delete(entry);
+                }
+            }
+        } catch (IOException exc) {
+            progress.failed(directory, exc);
+            deletedAll = false;
+        } catch (DirectoryIteratorException exc) {
+            progress.failed(directory, exc.getCause());
+            deletedAll = false;
+        }
+
+        for (final DeleteTreeTask subtask : subtasks) {
+            deletedAll &= subtask.join();
+        }
+
+        return deletedAll && delete(directory);
+    }
+
+    private boolean delete(final Path path) {
+        try {
+            Files.delete(path);
+            progress.deleted(path);
+            return true;
+        } catch (IOException exc) {
+            progress.failed(path, exc);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lazy view of directory's entries on local file system. Entries are never
+ * collected up front: every traversal streams directory anew and builds
+ * {@link Item}s one by one. Attributes of each entry are read once, where
+ * platform allows relative to already opened directory handle, and its
+ * identifier is read only for built item. Listing never writes to disk.
+ * Symbolic links and entries removed while directory is streamed are
+ * skipped.
+ *
+ * <p>{@link #forEach(Consumer)}, {@link #contains(Object)}, {@link #size()}
+ * and {@link #isEmpty()} close directory stream before they return.
+ * Iterator closes it once exhausted, stream of iterator abandoned earlier
+ * is closed when iterator becomes unreachable, so prefer
+ * {@link #forEach(Consumer)} when traversal may stop early.
+ */
+@RequiredArgsConstructor
+final class DirectoryEntries extends AbstractSet<Item> {
+
+    private static final Cleaner STREAM_CLEANER = Cleaner.create();
+
+    private final Directory directory;
+    private final Path directoryPath;
+    private final Function<Path, ItemId> identifier;
+    private final Predicate<Path> hidden;
+
+    @Override
+    @NonNull
+    public Iterator<Item> iterator() {
+        return new EntryIterator(open());
+    }
+
+    @Override
+    public void forEach(final Consumer<? super Item> action) {
+        try (DirectoryStream<Path> stream = open()) {
+            for (final Path entry : stream) {
+                final Item item = toItem(stream, entry);
+                if (item != null) {
+                    action.accept(item);
+                }
+            }
+        } catch (IOException exc) {
+            throw listingFailed(exc);
+        }
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        if (!(object instanceof Item)) {
+            return false;
+        }
+
+        try (DirectoryStream<Path> stream = open()) {
+            for (final Path entry : stream) {
+                if (entry.getFileName().toString().equals(((Item) object).getName())) {
+                    return object.equals(toItem(stream, entry));
+                }
+            }
+        } catch (IOException exc) {
+            throw listingFailed(exc);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        try (DirectoryStream<Path> stream = open()) {
+            for (final Path entry : stream) {
+                if (isListed(stream, entry)) {
+                    size++;
+                }
+            }
+        } catch (IOException exc) {
+            throw listingFailed(exc);
+        }
+
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        try (DirectoryStream<Path> stream = open()) {
+            for (final Path entry : stream) {
+                if (isListed(stream, entry)) {
+                    return false;
+                }
+            }
+        } catch (IOException exc) {
+            throw listingFailed(exc);
+        }
+
+        return true;
+    }
+
+    private DirectoryStream<Path> open() {
+        try {
+            return Files.newDirectoryStream(directoryPath);
+        } catch (IOException exc) {
+            throw listingFailed(exc);
+        }
+    }
+
+    private boolean isListed(final DirectoryStream<Path> stream, final Path entry) {
+        return !hidden.test(entry) && readAttributes(stream, entry) != null;
+    }
+
+    /**
+     * Builds item of entry, {@code null} if entry isn't listed.
+     */
+    @Nullable
+    private Item toItem(final DirectoryStream<Path> stream, final Path entry) {
+        if (hidden.test(entry)) {
+            return null;
+        }
+
+        final BasicFileAttributes attributes = readAttributes(stream, entry);
+        if (attributes == null) {
+            return null;
+        }
+
+        final String name = entry.getFileName().toString();
+        final ItemId id = identifier.apply(entry);
+        if (attributes.isDirectory()) {
+            return Directory.builder()
+                    .id(id)
+                    .parent(directory)
+                    .name(name)
+                    .build();
+        }
+
+        return File.builder()
+                .id(id)
+                .parent(directory)
+                .name(name)
+                .modifiedDate(attributes.lastModifiedTime().toInstant())
+                .build();
+    }
+
+    /**
+     * Reads attributes of entry, {@code null} for symbolic link or entry
+     * removed since directory was read.
+     */
+    @Nullable
+    private static BasicFileAttributes readAttributes(final DirectoryStream<Path> stream, final Path entry) {
+        final BasicFileAttributes attributes;
+        try {
+            if (stream instanceof SecureDirectoryStream) {
+                attributes = ((SecureDirectoryStream<Path>) stream)
+                        .getFileAttributeView(entry.getFileName(), BasicFileAttributeView.class,
+                                LinkOption.NOFOLLOW_LINKS)
+                        .readAttributes();
+            } else {
+                attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+        } catch (NoSuchFileException exc) {
+            return null;
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to read attributes of: '" + entry + "'", exc);
+        }
+
+        return attributes.isSymbolicLink() ? null : attributes;
+    }
+
+    private UncheckedIOException listingFailed(final IOException exc) {
+        return new UncheckedIOException("Unable to list directory: '" + directoryPath + "'", exc);
+    }
+
+    /**
+     * Closes directory stream, registered with cleaner of its iterator.
+     */
+    @RequiredArgsConstructor
+    private static class StreamCloser implements Runnable {
+
+        private final DirectoryStream<Path> stream;
+
+        @Override
+        public void run() {
+            try {
+                stream.close();
+            } catch (IOException exc) {
+                throw new UncheckedIOException("Unable to close directory stream", exc);
+            }
+        }
+    }
+
+    private class EntryIterator implements Iterator<Item> {
+
+        private final DirectoryStream<Path> stream;
+        private final Iterator<Path> entries;
+        private final Cleaner.Cleanable closer;
+        private Item next;
+
+        EntryIterator(final DirectoryStream<Path> stream) {
+            this.stream = stream;
+            this.entries = stream.iterator();
+            this.closer = STREAM_CLEANER.register(this, new StreamCloser(stream));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && entries.hasNext()) {
+                next = toItem(stream, entries.next());
+            }
+
+            if (next == null) {
+                closer.clean();
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Item item = next;
+            next = null;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.artemsirosh.lite.sftp.io;
+
+/**
+ * Defines when written file content is forced to storage device.
+ */
+enum DurabilityPolicy {
+
+    /**
+     * Content isn't forced, operating system flushes it when it decides.
+     * File still appears atomically, but may lose content on power loss.
+     */
+    NONE,
+
+    /**
+     * Every file and its directory are forced before file appears.
+     */
+    FSYNC,
+
+    /**
+     * Files written concurrently are forced and published together by
+     * single committer in short intervals. Every directory is forced once
+     * per batch.
+     */
+    GROUP_COMMIT
+}
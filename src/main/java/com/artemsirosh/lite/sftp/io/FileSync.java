@@ -0,0 +1,55 @@
+package com.artemsirosh.lite.sftp.io;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helpers publishing written files and forcing files and directories to
+ * storage device.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class FileSync {
+
+    /**
+     * Publishes temporary file under target name without replacing existing
+     * entry: target is created as hard link of temporary file, then temporary
+     * name is removed. Unlike rename, link fails with
+     * {@link java.nio.file.FileAlreadyExistsException} when target appeared
+     * meanwhile, so concurrently created file is never lost.
+     */
+    static void publishFile(final Path temporaryPath, final Path targetPath) throws IOException {
+        Files.createLink(targetPath, temporaryPath);
+        try {
+            Files.delete(temporaryPath);
+        } catch (IOException exc) {
+            log.warn("Unable to delete temporary file '{}' of published '{}'", temporaryPath, targetPath, exc);
+        }
+    }
+
+    static void forceFile(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Forces directory entries, so renames in directory survive power loss.
+     * Some platforms don't allow to open directory, there renames are
+     * durable once file system journal flushed.
+     */
+    static void forceDirectory(final Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException exc) {
+            log.debug("Unable to force directory '{}': {}", directory, exc.toString());
+        }
+    }
+}
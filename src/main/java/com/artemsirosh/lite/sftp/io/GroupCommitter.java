@@ -0,0 +1,110 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes written temporary files in batches. Writers enqueue their
+ * files and wait, while single committer thread periodically forces
+ * all enqueued files, publishes them under their targets and forces every
+ * affected directory once per batch.
+ */
+@Slf4j
+class GroupCommitter {
+
+    private final List<PendingCommit> pending = new ArrayList<>();
+    private final ScheduledExecutorService committer;
+
+    GroupCommitter(final Duration interval) {
+        this.committer = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("group-commit-%d").setDaemon(true).build()
+        );
+        final long intervalNanos = interval.toNanos();
+        this.committer.scheduleWithFixedDelay(this::commitPending, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Enqueues temporary file for publishing and waits until it's durably
+     * renamed to target.
+     */
+    void commit(final Path temporaryPath, final Path targetPath) throws IOException {
+        final var commit = new PendingCommit(temporaryPath, targetPath);
+        synchronized (pending) {
+            pending.add(commit);
+        }
+        if (committer.isShutdown()) {
+            commitPending();
+        }
+
+        try {
+            commit.result.get();
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting commit of '" + targetPath + "'");
+        } catch (ExecutionException exc) {
+            if (exc.getCause() instanceof IOException) {
+                throw (IOException) exc.getCause();
+            }
+            throw new IOException("Unable to commit '" + targetPath + "'", exc.getCause());
+        }
+    }
+
+    /**
+     * Stops periodic commits and commits enqueued files, files enqueued
+     * afterwards are committed by their writers.
+     */
+    void stop() {
+        committer.shutdown();
+        commitPending();
+    }
+
+    private void commitPending() {
+        final List<PendingCommit> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        final List<PendingCommit> renamed = new ArrayList<>(batch.size());
+        final Set<Path> directories = new LinkedHashSet<>();
+        for (final PendingCommit commit : batch) {
+            try {
+                FileSync.forceFile(commit.temporaryPath);
+                FileSync.publishFile(commit.temporaryPath, commit.targetPath);
+                directories.add(commit.targetPath.getParent());
+                renamed.add(commit);
+            } catch (IOException | RuntimeException exc) {
+                commit.result.completeExceptionally(exc);
+            }
+        }
+
+        directories.forEach(FileSync::forceDirectory);
+        renamed.forEach(commit -> commit.result.complete(null));
+        log.debug("Committed {} files in {} directories", renamed.size(), directories.size());
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingCommit {
+        private final Path temporaryPath;
+        private final Path targetPath;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+    }
+}
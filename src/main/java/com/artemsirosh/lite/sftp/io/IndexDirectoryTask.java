@@ -0,0 +1,102 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Indexes directory's subtree: registers directory's entries as one batch
+ * and forks task per subdirectory. Symbolic links are skipped, as listing
+ * skips them. Entries are registered with identifiers stored with them,
+ * untagged entries get identifiers assigned here, so listing stays
+ * read-only, see {@link ItemIdAttributes}.
+ */
+class IndexDirectoryTask extends RecursiveAction {
+
+    private final Path path;
+    private final Directory directory;
+    private final RegisterItemPort registerItemPort;
+    private final IndexProgress progress;
+
+    IndexDirectoryTask(final Path path, final Directory directory, final RegisterItemPort registerItemPort,
+                       final IndexProgress progress) {
+        this.path = path;
+        this.directory = directory;
+        this.registerItemPort = registerItemPort;
+        this.progress = progress;
+    }
+
+    @Override
+    protected void compute() {
+        invokeAll(indexEntries(path, directory, registerItemPort, progress));
+    }
+
+    /**
+     * Registers entries of directory and returns tasks indexing its
+     * subdirectories.
+     *
+     * @param parent directory model, {@code null} for catalog root
+     */
+    static List<IndexDirectoryTask> indexEntries(final Path path, @Nullable final Directory parent,
+                                                 final RegisterItemPort registerItemPort,
+                                                 final IndexProgress progress) {
+        final List<Item> items = new ArrayList<>();
+        final List<IndexDirectoryTask> subtasks = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+            for (final Path entry : entries) {
+                final String name = entry.getFileName().toString();
+                if (parent == null && name.equals(LocalFileSystemService.TRASH_DIRECTORY_NAME)
+                        || LocalFileSystemService.isTemporaryFile(entry)) {
+                    continue;
+                }
+
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException exc) {
+                    progress.failed(entry, exc);
+                    continue;
+                }
+
+                if (attributes.isSymbolicLink()) {
+                    continue;
+                }
+
+                if (attributes.isDirectory()) {
+                    final Directory subdirectory = Directory.builder()
+                            .id(ItemIdAttributes.readOrAssign(entry))
+                            .parent(parent)
+                            .name(name)
+                            .build();
+                    items.add(subdirectory);
+                    subtasks.add(new IndexDirectoryTask(entry, subdirectory, registerItemPort, progress));
+                } else {
+                    items.add(File.builder()
+                            .id(ItemIdAttributes.readOrAssign(entry))
+                            .parent(parent)
+                            .name(name)
+                            .modifiedDate(attributes.lastModifiedTime().toInstant())
+                            .build());
+                }
+            }
+        } catch (IOException exc) {
+            progress.failed(path, exc);
+        }
+
+        registerItemPort.registerAll(items);
+        items.forEach(item -> progress.indexed(item.isDirectory()));
+        return subtasks;
+    }
+}
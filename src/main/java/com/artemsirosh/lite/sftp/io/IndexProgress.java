@@ -0,0 +1,88 @@
+package com.artemsirosh.lite.sftp.io;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks progress of catalog indexing shared by all indexing tasks.
+ * Progress and throughput are logged periodically, failed entries are
+ * skipped.
+ */
+@Slf4j
+public class IndexProgress {
+
+    private static final long REPORT_INTERVAL = 100_000L;
+
+    private final Path catalog;
+    private final long startedNanos = System.nanoTime();
+    private final AtomicLong directoryCount = new AtomicLong();
+    private final AtomicLong fileCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile long completedNanos;
+
+    IndexProgress(final Path catalog) {
+        this.catalog = catalog;
+    }
+
+    void indexed(final boolean directory) {
+        if (directory) {
+            directoryCount.incrementAndGet();
+        } else {
+            fileCount.incrementAndGet();
+        }
+
+        final long count = getIndexedCount();
+        if (count % REPORT_INTERVAL == 0) {
+            log.info("Indexing '{}': {} items indexed, {} items/s", catalog, count, getThroughput());
+        }
+    }
+
+    void failed(final Path path, final IOException exc) {
+        log.warn("Unable to index '{}': {}", path, exc.toString());
+        failedCount.incrementAndGet();
+    }
+
+    void completed() {
+        completedNanos = System.nanoTime();
+        log.info("Catalog '{}' indexed: {} directories, {} files, {} failed in {} ms, {} items/s",
+                catalog, getDirectoryCount(), getFileCount(), getFailedCount(), getElapsed().toMillis(),
+                getThroughput());
+    }
+
+    public long getDirectoryCount() {
+        return directoryCount.get();
+    }
+
+    public long getFileCount() {
+        return fileCount.get();
+    }
+
+    public long getIndexedCount() {
+        return directoryCount.get() + fileCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns time spent on indexing so far or on whole indexing when it's
+     * completed.
+     */
+    public Duration getElapsed() {
+        final long endNanos = completedNanos != 0L ? completedNanos : System.nanoTime();
+        return Duration.ofNanos(endNanos - startedNanos);
+    }
+
+    /**
+     * Returns average number of indexed items per second.
+     */
+    public long getThroughput() {
+        final long elapsedNanos = Math.max(1L, getElapsed().toNanos());
+        return getIndexedCount() * 1_000_000_000L / elapsedNanos;
+    }
+}
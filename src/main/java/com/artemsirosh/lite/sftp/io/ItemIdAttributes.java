@@ -0,0 +1,96 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores item identifier in user-defined (extended) attribute of file or
+ * directory, so item keeps identifier it's registered with across renames
+ * and restarts, and listing or indexing of disk yields the same identifiers
+ * as registry holds. Only UUID identifiers are stored. File systems without
+ * extended attributes support are tolerated: identifier is just not stored.
+ * Attributes are never followed through symbolic links.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ItemIdAttributes {
+
+    static final String ATTRIBUTE_NAME = "lite-sftp.id";
+
+    private static final int UUID_SIZE = 2 * Long.BYTES;
+
+    static void write(final Path path, final ItemId id) {
+        final var view = getView(path);
+        final Optional<UUID> uuid = id != null ? id.asUUID() : Optional.empty();
+        if (view == null || uuid.isEmpty()) {
+            return;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(UUID_SIZE)
+                .putLong(uuid.get().getMostSignificantBits())
+                .putLong(uuid.get().getLeastSignificantBits())
+                .flip();
+        try {
+            view.write(ATTRIBUTE_NAME, buffer);
+        } catch (IOException | UnsupportedOperationException exc) {
+            log.debug("Unable to store id of '{}': {}", path, exc.toString());
+        }
+    }
+
+    /**
+     * Returns stored identifier or empty when it's absent or malformed.
+     * Attribute is read by single read, which itself reports its absence.
+     */
+    static Optional<ItemId> read(final Path path) {
+        final var view = getView(path);
+        if (view == null) {
+            return Optional.empty();
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(UUID_SIZE);
+        try {
+            if (view.read(ATTRIBUTE_NAME, buffer) != UUID_SIZE) {
+                return Optional.empty();
+            }
+        } catch (FileSystemException exc) {
+            // attribute is absent or entry is gone
+            return Optional.empty();
+        } catch (IOException | UnsupportedOperationException exc) {
+            log.debug("Unable to read id of '{}': {}", path, exc.toString());
+            return Optional.empty();
+        }
+
+        buffer.flip();
+        return Optional.of(ItemId.of(new UUID(buffer.getLong(), buffer.getLong())));
+    }
+
+    /**
+     * Returns stored identifier, entry created bypassing the service gets
+     * new one which is stored for next reads. Identifier is read back after
+     * storing, so concurrent indexers of new entry likely agree on it. Writes
+     * to disk, so it's meant for indexing only, listing uses {@link #read(Path)}.
+     */
+    static ItemId readOrAssign(final Path path) {
+        return read(path).orElseGet(() -> {
+            final ItemId id = ItemId.newInstanceUUID();
+            write(path, id);
+            return read(path).orElse(id);
+        });
+    }
+
+    private static UserDefinedFileAttributeView getView(final Path path) {
+        return Files.getFileAttributeView(path, UserDefinedFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+    }
+}
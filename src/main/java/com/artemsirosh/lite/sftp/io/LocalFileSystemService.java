@@ -1,38 +1,133 @@
 package com.artemsirosh.lite.sftp.io;
 
 import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListing;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
 import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
 import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
 import com.artemsirosh.lite.sftp.port.outbound.CreateDirectoryPort;
 import com.artemsirosh.lite.sftp.port.outbound.CreateFilePort;
 import com.artemsirosh.lite.sftp.port.outbound.DeleteItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetFileContentPort;
-import lombok.RequiredArgsConstructor;
+import com.artemsirosh.lite.sftp.port.outbound.MoveItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.TrashItemPort;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.util.Assert;
 
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.FileAlreadyExistsException;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 @Slf4j
-@RequiredArgsConstructor
-class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, CreateFilePort, GetFileContentPort {
+class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, CreateFilePort, GetFileContentPort,
+        TrashItemPort, GetDirectoryListingPort, MoveItemPort, Closeable {
+
+    /**
+     * Size of chunk used to copy streamed content to disk.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Maximum size of content range which could be returned as array.
+     */
+    private static final long MAX_RANGE_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Hidden directory inside root directory where trashed items wait for
+     * removal.
+     */
+    static final String TRASH_DIRECTORY_NAME = ".lite-sftp-trash";
+
+    /**
+     * Name prefix and suffix of temporary files holding content being
+     * written.
+     */
+    static final String TEMPORARY_FILE_PREFIX = ".lite-sftp-";
+    static final String TEMPORARY_FILE_SUFFIX = ".part";
 
     private final Path rootDirectory;
 
+    /**
+     * Resolved and checked paths of directories, keyed by directory id.
+     */
+    private final Cache<ItemId, Path> directoryPaths;
+
+    private final ForkJoinPool deletePool;
+    private final ForkJoinPool writePool;
+
+    private final Path trashDirectory;
+    private final TrashReclaimer trashReclaimer;
+
+    private final DurabilityPolicy durabilityPolicy;
+    private final GroupCommitter groupCommitter;
+    private final ChecksumAlgorithm checksumAlgorithm;
+
+    LocalFileSystemService(final Path rootDirectory) {
+        this(rootDirectory, LocalFileSystemSettings.DEFAULT);
+    }
+
+    LocalFileSystemService(final Path rootDirectory, final LocalFileSystemSettings settings) {
+        this.rootDirectory = rootDirectory;
+        this.directoryPaths = CacheBuilder.newBuilder()
+                .maximumSize(settings.getPathCacheSize())
+                .build();
+        this.deletePool = new ForkJoinPool(settings.getDeleteParallelism());
+        this.writePool = new ForkJoinPool(settings.getWriteParallelism());
+        this.trashDirectory = rootDirectory.resolve(TRASH_DIRECTORY_NAME);
+        this.trashReclaimer = new TrashReclaimer(trashDirectory, settings.getTrashReclaimRate());
+        this.durabilityPolicy = settings.getDurabilityPolicy();
+        this.groupCommitter = durabilityPolicy == DurabilityPolicy.GROUP_COMMIT
+                ? new GroupCommitter(settings.getGroupCommitInterval())
+                : null;
+        this.checksumAlgorithm = settings.getChecksumAlgorithm();
+    }
+
     void init() {
         Assert.isTrue(Files.exists(rootDirectory), "Root directory doesn't exists");
         Assert.isTrue(Files.isDirectory(rootDirectory), "Root directory is file");
+        trashReclaimer.start();
+    }
+
+    /**
+     * Stops background work: enqueued group commits are completed, trash
+     * reclaimer stops leaving pending entries for next start, pools finish
+     * running tasks and accept no more.
+     */
+    @Override
+    public void close() {
+        if (groupCommitter != null) {
+            groupCommitter.stop();
+        }
+        trashReclaimer.stop();
+        writePool.shutdown();
+        deletePool.shutdown();
     }
 
     @Override
@@ -41,9 +136,12 @@ class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, Cre
 
         try {
             Files.createDirectory(directoryPath);
+            ItemIdAttributes.write(directoryPath, directory.getId());
             log.debug("Created directory: {}, path: {}", directory, directoryPath);
         } catch (FileAlreadyExistsException exc) {
             throw new ItemPathAlreadyExistsException(directory, exc);
+        } catch (NoSuchFileException exc) {
+            throw parentPathNotExists(directoryPath);
         } catch (IOException exc) {
             throw new UncheckedIOException("Unable to create directory: '" + directoryPath + "'", exc);
         }
@@ -51,16 +149,149 @@ class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, Cre
 
     @Override
     public void createFile(@NonNull final File file, @NonNull final FileContent content) {
-        final Path parentPath = getItemPath(file.getParent());
-        final Path filePath = parentPath.resolve(file.getName());
-        log.debug("Creating a file with local path: {}", filePath);
+        createFileFromChannel(file, Channels.newChannel(new ByteArrayInputStream(content.getContent())));
+    }
+
+    /**
+     * Writes content to temporary file next to the target and publishes it
+     * atomically, so file never appears with partial content. Publishing
+     * never replaces existing file, when target appeared meanwhile creation
+     * fails. Content is forced according to {@link DurabilityPolicy}.
+     */
+    @Override
+    public void createFileFromChannel(@NonNull final File file, @NonNull final ReadableByteChannel content) {
+        final Path filePath = getItemPath(file);
+        if (Files.exists(filePath)) {
+            throw new UncheckedIOException(new FileAlreadyExistsException(filePath.toString()));
+        }
+
+        Path temporaryPath = null;
         try {
-            final long bytesWritten = Files.copy(new ByteArrayInputStream(content.getContent()), filePath);
-            log.debug("File created, {} bytes written", bytesWritten);
+            final boolean force = durabilityPolicy == DurabilityPolicy.FSYNC;
+            temporaryPath = writeTemporaryFile(file.getId(), filePath, content, force);
+            publish(temporaryPath, filePath);
+            log.debug("File created: {}", filePath);
+        } catch (NoSuchFileException exc) {
+            throw parentPathNotExists(filePath);
         } catch (IOException exc) {
+            if (temporaryPath != null) {
+                deleteTemporaryFile(temporaryPath);
+            }
             throw new UncheckedIOException("Unable to create file: '" + filePath + "'", exc);
         }
+    }
+
+    /**
+     * Writes contents of files to temporary files concurrently, then
+     * publishes all of them without replacing existing files. Unless durability policy is {@link DurabilityPolicy#NONE}
+     * temporary files are forced concurrently and every affected directory
+     * is forced once after renames, so whole batch shares one barrier.
+     */
+    @NonNull
+    @Override
+    public Map<ItemId, RuntimeException> createFiles(@NonNull final Map<File, FileContent> files) {
+        final Map<ItemId, RuntimeException> failures = new ConcurrentHashMap<>();
+        final Map<File, Path> temporaryPaths = new ConcurrentHashMap<>();
+        final boolean durable = durabilityPolicy != DurabilityPolicy.NONE;
+        final List<Callable<Void>> writes = new ArrayList<>(files.size());
+        files.forEach((file, content) -> writes.add(() -> {
+            final Path filePath = getItemPath(file);
+            try {
+                if (Files.exists(filePath)) {
+                    throw new FileAlreadyExistsException(filePath.toString());
+                }
+                final var source = Channels.newChannel(new ByteArrayInputStream(content.getContent()));
+                temporaryPaths.put(file, writeTemporaryFile(file.getId(), filePath, source, durable));
+            } catch (NoSuchFileException exc) {
+                failures.put(file.getId(), parentPathNotExists(filePath));
+            } catch (IOException exc) {
+                failures.put(file.getId(), new UncheckedIOException("Unable to create file: '" + filePath + "'", exc));
+            } catch (RuntimeException exc) {
+                failures.put(file.getId(), exc);
+            }
+            return null;
+        }));
+        writePool.invokeAll(writes);
+
+        final Set<Path> directories = new LinkedHashSet<>();
+        for (final File file : files.keySet()) {
+            final Path temporaryPath = temporaryPaths.get(file);
+            if (temporaryPath == null) {
+                continue;
+            }
+
+            final Path filePath = temporaryPath.resolveSibling(file.getName());
+            try {
+                FileSync.publishFile(temporaryPath, filePath);
+                directories.add(filePath.getParent());
+            } catch (IOException exc) {
+                deleteTemporaryFile(temporaryPath);
+                failures.put(file.getId(), new UncheckedIOException("Unable to create file: '" + filePath + "'", exc));
+            }
+        }
 
+        if (durable) {
+            directories.forEach(FileSync::forceDirectory);
+        }
+        log.debug("Created {} files of {} in {} directories", files.size() - failures.size(), files.size(),
+                directories.size());
+        return failures;
+    }
+
+    /**
+     * Writes content to new temporary file next to given path computing its
+     * checksum, checksum and identifier of file are stored with it before
+     * file is forced, so they are as durable as content. Temporary file is
+     * removed if writing fails.
+     *
+     * @return path of temporary file
+     */
+    private Path writeTemporaryFile(final ItemId id, final Path filePath, final ReadableByteChannel content,
+                                    final boolean force) throws IOException {
+        final Path temporaryPath = filePath.resolveSibling(
+                TEMPORARY_FILE_PREFIX + UUID.randomUUID() + TEMPORARY_FILE_SUFFIX
+        );
+        log.debug("Creating a file with local path: {}, temporary path: {}", filePath, temporaryPath);
+        final ContentDigest digest = checksumAlgorithm.newDigest();
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                final long bytesWritten = transfer(content, channel, digest);
+                ChecksumAttributes.write(temporaryPath, checksumAlgorithm, digest.getValue());
+                ItemIdAttributes.write(temporaryPath, id);
+                if (force) {
+                    channel.force(true);
+                }
+                log.debug("File content written, {} bytes", bytesWritten);
+            }
+
+            return temporaryPath;
+        } catch (IOException | RuntimeException exc) {
+            deleteTemporaryFile(temporaryPath);
+            throw exc;
+        }
+    }
+
+    private void publish(final Path temporaryPath, final Path filePath) throws IOException {
+        switch (durabilityPolicy) {
+            case GROUP_COMMIT:
+                groupCommitter.commit(temporaryPath, filePath);
+                break;
+            case FSYNC:
+                FileSync.publishFile(temporaryPath, filePath);
+                FileSync.forceDirectory(filePath.getParent());
+                break;
+            default:
+                FileSync.publishFile(temporaryPath, filePath);
+        }
+    }
+
+    private static void deleteTemporaryFile(final Path temporaryPath) {
+        try {
+            Files.deleteIfExists(temporaryPath);
+        } catch (IOException exc) {
+            log.warn("Unable to delete temporary file '{}'", temporaryPath, exc);
+        }
     }
 
     @Override
@@ -70,19 +301,86 @@ class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, Cre
             throw new ItemPathNotExistsException(itemPath);
         }
 
-        try {
-            if (item.isDirectory()) {
-                log.debug("Deleting directory: {}", item.getId());
-                Files.walkFileTree(itemPath, new DeletingPathVisitor());
-            } else {
+        if (item.isDirectory()) {
+            log.debug("Deleting directory: {}", item.getId());
+            final var progress = new DeleteProgress(itemPath);
+            try {
+                deletePool.invoke(new DeleteTreeTask(itemPath, progress));
+            } finally {
+                invalidateCachedPaths(item, itemPath);
+            }
+
+            if (progress.getFailedCount() > 0) {
+                throw new ItemPartiallyDeletedException(itemPath, progress);
+            }
+            log.debug("Deleted directory: {}, {} entries removed", item.getId(), progress.getDeletedCount());
+        } else {
+            try {
                 log.debug("Deleting file: {}", item.getId());
                 Files.delete(itemPath);
+                log.debug("Deleted item: {}", item.getId());
+            } catch (IOException exc) {
+                throw new UncheckedIOException("Unable to delete item: '" + itemPath + "'", exc);
             }
+        }
+    }
+
+    @Override
+    public void trashItem(@NonNull final Item item) {
+        final Path itemPath = getItemPath(item);
+        if (!Files.exists(itemPath)) {
+            throw new ItemPathNotExistsException(itemPath);
+        }
+
+        final Path trashEntry = trashDirectory.resolve(UUID.randomUUID().toString());
+        try {
+            Files.createDirectories(trashDirectory);
+            Files.move(itemPath, trashEntry, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Moved item: {} to trash: {}", item.getId(), trashEntry);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to move item: '" + itemPath + "' to trash", exc);
+        } finally {
+            invalidateCachedPaths(item, itemPath);
+        }
+
+        trashReclaimer.submit(trashEntry);
+    }
 
-            log.debug("Deleted item: {}", item.getId());
+    /**
+     * Moves item by atomic rename, without copying its content, so time
+     * doesn't depend on item size, and move between file systems fails
+     * instead of copying. Rename may replace item which appeared at target
+     * after it was checked, callers exclude concurrent changes of both
+     * directories by locks. Moved directory is dropped from cached paths
+     * together with its descendants.
+     */
+    @Override
+    public void moveItem(@NonNull final Item item, @NonNull final Item target) {
+        final Path itemPath = getItemPath(item);
+        final Path targetPath = getItemPath(target);
+        if (!Files.exists(itemPath)) {
+            throw new ItemPathNotExistsException(itemPath);
+        } else if (Files.exists(targetPath)) {
+            throw new ItemPathAlreadyExistsException(target, new FileAlreadyExistsException(targetPath.toString()));
+        }
 
+        try {
+            Files.move(itemPath, targetPath, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Moved item: {} from: {} to: {}", item.getId(), itemPath, targetPath);
+            if (durabilityPolicy != DurabilityPolicy.NONE) {
+                FileSync.forceDirectory(targetPath.getParent());
+                if (!targetPath.getParent().equals(itemPath.getParent())) {
+                    FileSync.forceDirectory(itemPath.getParent());
+                }
+            }
+        } catch (FileAlreadyExistsException exc) {
+            throw new ItemPathAlreadyExistsException(target, exc);
+        } catch (NoSuchFileException exc) {
+            throw parentPathNotExists(targetPath);
         } catch (IOException exc) {
-            throw new UncheckedIOException("Unable to delete item: '" + itemPath + "'", exc);
+            throw new UncheckedIOException("Unable to move item: '" + itemPath + "' to: '" + targetPath + "'", exc);
+        } finally {
+            invalidateCachedPaths(item, itemPath);
         }
     }
 
@@ -92,20 +390,130 @@ class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, Cre
         final var filePath = getItemPath(file);
         log.debug("Retrieving local file: {}", filePath);
         try {
-            return new FileContent(Files.readAllBytes(filePath));
+            return new FileContent(Files.readAllBytes(filePath), ChecksumAttributes.read(filePath, checksumAlgorithm));
         } catch (IOException e) {
-            throw new UncheckedIOException("Unable to read file: '" + "'", e);
+            throw new UncheckedIOException("Unable to read file: '" + filePath + "'", e);
+        }
+    }
+
+    @NonNull
+    @Override
+    public FileContent getFileContent(@NonNull final File file, final long offset, final long length) {
+        final var filePath = getItemPath(file);
+        log.debug("Retrieving local file: {}, offset: {}, length: {}", filePath, offset, length);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            final long available = Math.max(0L, channel.size() - offset);
+            final long rangeLength = Math.min(available, length);
+            if (rangeLength > MAX_RANGE_LENGTH) {
+                throw new ContentRangeTooLargeException(filePath, rangeLength);
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate((int) rangeLength);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                final int bytesRead = channel.read(buffer, position);
+                if (bytesRead == -1) {
+                    break;
+                }
+                position += bytesRead;
+            }
+
+            return new FileContent(buffer.position() == buffer.capacity()
+                    ? buffer.array()
+                    : Arrays.copyOf(buffer.array(), buffer.position()));
+        } catch (NoSuchFileException exc) {
+            throw new ItemPathNotExistsException(filePath);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to read file: '" + filePath + "'", exc);
+        }
+    }
+
+    @NonNull
+    @Override
+    public FileChannel openFileContent(@NonNull final File file) {
+        final var filePath = getItemPath(file);
+        log.debug("Opening local file: {}", filePath);
+        try {
+            return FileChannel.open(filePath, StandardOpenOption.READ);
+        } catch (NoSuchFileException exc) {
+            throw new ItemPathNotExistsException(filePath);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to open file: '" + filePath + "'", exc);
+        }
+    }
+
+    /**
+     * Returns lazy listing, directory is read on every traversal and never
+     * written. Items are identified by identifiers stored with them when they
+     * were created or indexed, entries created bypassing the service since
+     * last indexing are identified by their paths. Service's own trash
+     * directory, temporary files and symbolic links aren't listed.
+     */
+    @NonNull
+    @Override
+    public DirectoryListing getListing(@NonNull final Directory directory) {
+        final var directoryPath = getItemPath(directory);
+        log.debug("Listing local directory: {}", directoryPath);
+        if (!Files.isDirectory(directoryPath)) {
+            throw new ItemPathNotExistsException(directoryPath);
         }
+
+        return new DirectoryListing(
+                directory,
+                new DirectoryEntries(directory, directoryPath, this::getListedItemId, this::isServiceEntry)
+        );
+    }
+
+    private ItemId getListedItemId(final Path path) {
+        return ItemIdAttributes.read(path).orElseGet(() -> {
+            final List<CharSequence> elements = new ArrayList<>();
+            for (final Path element : rootDirectory.relativize(path)) {
+                elements.add(element.toString());
+            }
+
+            return ItemId.of(elements);
+        });
+    }
+
+    private boolean isServiceEntry(final Path path) {
+        return path.equals(trashDirectory) || isTemporaryFile(path);
     }
 
-    private Path getItemPath(final Item item) {
-        Path parentPath = this.rootDirectory;
-        for (final String name : item.calculatePath()) {
-            parentPath = parentPath.resolve(name);
-            if (!Files.exists(parentPath)) {
-                throw new ItemPathNotExistsException(parentPath);
+    /**
+     * Returns {@code true} when path names temporary file holding content
+     * being written.
+     */
+    static boolean isTemporaryFile(final Path path) {
+        final String name = path.getFileName().toString();
+        return name.startsWith(TEMPORARY_FILE_PREFIX) && name.endsWith(TEMPORARY_FILE_SUFFIX);
+    }
+
+    /**
+     * Copies source to target chunk by chunk, every chunk passes digest
+     * before it's written, so content is read only once.
+     */
+    private static long transfer(final ReadableByteChannel source, final FileChannel target,
+                                 final ContentDigest digest) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        long bytesWritten = 0L;
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            digest.update(buffer);
+            while (buffer.hasRemaining()) {
+                bytesWritten += target.write(buffer);
             }
+            buffer.clear();
         }
+
+        return bytesWritten;
+    }
+
+    Path getRootDirectory() {
+        return rootDirectory;
+    }
+
+    Path getItemPath(final Item item) {
+        final Path parentPath = item.getParent() == null ? rootDirectory : getDirectoryPath(item.getParent());
         log.debug("Resolved parent path '{}'", parentPath);
 
         final Path itemPath = parentPath.resolve(item.getName());
@@ -114,31 +522,76 @@ class LocalFileSystemService implements CreateDirectoryPort, DeleteItemPort, Cre
         return itemPath;
     }
 
-    private static class DeletingPathVisitor extends SimpleFileVisitor<Path> {
-        @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-            Files.delete(file);
-            return FileVisitResult.CONTINUE;
+    /**
+     * Resolves path of directory checking that it and all its ancestors
+     * exist. Checked paths are cached, so only ancestors which weren't
+     * resolved before cost a disk access.
+     */
+    private Path getDirectoryPath(final Item directory) {
+        final Path cachedPath = directory.getId() != null ? directoryPaths.getIfPresent(directory.getId()) : null;
+        if (cachedPath != null) {
+            return cachedPath;
         }
 
-        @Override
-        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-            if (exc == null) {
-                Files.delete(dir);
-            } else {
-                throw exc;
-            }
+        final Path parentPath = directory.getParent() == null
+                ? rootDirectory
+                : getDirectoryPath(directory.getParent());
 
-            return FileVisitResult.CONTINUE;
+        final Path directoryPath = parentPath.resolve(directory.getName());
+        if (!Files.exists(directoryPath)) {
+            throw new ItemPathNotExistsException(directoryPath);
+        }
+
+        if (directory.getId() != null) {
+            directoryPaths.put(directory.getId(), directoryPath);
+        }
+
+        return directoryPath;
+    }
+
+    /**
+     * Drops cached path of item and, for directory, paths of all its
+     * descendants. Should be called whenever item is deleted or moved.
+     */
+    void invalidateCachedPaths(final Item item, final Path itemPath) {
+        if (item.getId() != null) {
+            directoryPaths.invalidate(item.getId());
+        }
+
+        if (item.isDirectory()) {
+            directoryPaths.asMap().values().removeIf(path -> path.startsWith(itemPath));
         }
     }
 
+    /**
+     * Handles case when one of cached ancestors was removed bypassing this
+     * service: stale entries are dropped, so next call checks disk again.
+     */
+    private ItemPathNotExistsException parentPathNotExists(final Path itemPath) {
+        directoryPaths.asMap().values().removeIf(itemPath::startsWith);
+        return new ItemPathNotExistsException(itemPath.getParent());
+    }
+
     private static class ItemPathAlreadyExistsException extends AbstractServiceException {
         private ItemPathAlreadyExistsException(final Item item, final FileAlreadyExistsException exc) {
             super("Unable create Item: '" + item + "' it's already exists", exc);
         }
     }
 
+    private static class ContentRangeTooLargeException extends AbstractServiceException {
+        private ContentRangeTooLargeException(final Path path, final long length) {
+            super("Requested range of " + length + " bytes of '" + path + "' is too large, use content channel");
+        }
+    }
+
+    private static class ItemPartiallyDeletedException extends AbstractServiceException {
+        private ItemPartiallyDeletedException(final Path path, final DeleteProgress progress) {
+            super("Item '" + path + "' deleted partially, " + progress.getDeletedCount() + " entries deleted, "
+                    + progress.getFailedCount() + " failed", progress.getFailures().get(0));
+            progress.getFailures().stream().skip(1).forEach(this::addSuppressed);
+        }
+    }
+
     private static class ItemPathNotExistsException extends AbstractServiceException {
         private ItemPathNotExistsException(final Path path) {
             super("Item not exists: '" + path + "'");
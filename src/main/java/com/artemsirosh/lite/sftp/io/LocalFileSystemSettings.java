@@ -0,0 +1,69 @@
+package com.artemsirosh.lite.sftp.io;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Tuning settings of {@link LocalFileSystemService}.
+ */
+@Value
+@Builder
+class LocalFileSystemSettings {
+
+    static final LocalFileSystemSettings DEFAULT = LocalFileSystemSettings.builder().build();
+
+    /**
+     * Maximum number of resolved directory paths kept in memory. Zero
+     * disables caching, so every operation checks each ancestor on disk.
+     */
+    @Builder.Default
+    long pathCacheSize = 10_000L;
+
+    /**
+     * Maximum number of threads deleting sibling subtrees of directory
+     * concurrently.
+     */
+    @Builder.Default
+    int deleteParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of threads writing files of batch concurrently.
+     */
+    @Builder.Default
+    int writeParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of trashed files and directories removed per second
+     * by background reclaimer.
+     */
+    @Builder.Default
+    double trashReclaimRate = 5_000.0;
+
+    /**
+     * Defines whether and how written files are forced to storage device.
+     */
+    @Builder.Default
+    DurabilityPolicy durabilityPolicy = DurabilityPolicy.NONE;
+
+    /**
+     * Interval between batches when {@link DurabilityPolicy#GROUP_COMMIT}
+     * used.
+     */
+    @Builder.Default
+    Duration groupCommitInterval = Duration.ofMillis(5L);
+
+    /**
+     * Algorithm of checksum computed while file content is written and
+     * stored alongside file.
+     */
+    @Builder.Default
+    ChecksumAlgorithm checksumAlgorithm = ChecksumAlgorithm.CRC_32C;
+
+    /**
+     * Maximum total number of entries of cached directory listings.
+     */
+    @Builder.Default
+    long listingCacheSize = 100_000L;
+}
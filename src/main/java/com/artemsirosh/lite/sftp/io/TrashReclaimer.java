@@ -0,0 +1,105 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Removes content of trash directory in background. Every entry of trash
+ * directory is deleted recursively by single thread, number of deleted
+ * files and directories per second is limited, so reclamation doesn't
+ * starve client's I/O.
+ * <p>
+ * Trash directory is kept on disk, so entries left by previous run are
+ * picked up on {@link #start()}.
+ */
+@Slf4j
+class TrashReclaimer {
+
+    private final Path trashDirectory;
+    private final RateLimiter rateLimiter;
+    private final BlockingQueue<Path> pending = new LinkedBlockingQueue<>();
+    private final Thread worker;
+
+    TrashReclaimer(final Path trashDirectory, final double entriesPerSecond) {
+        this.trashDirectory = trashDirectory;
+        this.rateLimiter = RateLimiter.create(entriesPerSecond);
+        this.worker = new Thread(this::reclaimPending, "trash-reclaimer");
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        if (Files.isDirectory(trashDirectory)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(trashDirectory)) {
+                entries.forEach(pending::add);
+            } catch (IOException exc) {
+                log.warn("Unable to scan trash directory '{}'", trashDirectory, exc);
+            }
+            log.info("Found {} trash entries left from previous run", pending.size());
+        }
+
+        worker.start();
+    }
+
+    void stop() {
+        worker.interrupt();
+    }
+
+    /**
+     * Schedules removal of trash entry.
+     */
+    void submit(final Path trashEntry) {
+        pending.add(trashEntry);
+    }
+
+    private void reclaimPending() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                reclaim(pending.take());
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.debug("Trash reclaimer stopped, {} entries pending", pending.size());
+    }
+
+    private void reclaim(final Path trashEntry) {
+        log.debug("Reclaiming trash entry: {}", trashEntry);
+        try {
+            Files.walkFileTree(trashEntry, new ThrottledDeletingVisitor());
+            log.debug("Trash entry reclaimed: {}", trashEntry);
+        } catch (IOException exc) {
+            log.warn("Unable to reclaim trash entry '{}', it'll be retried on restart", trashEntry, exc);
+        }
+    }
+
+    private class ThrottledDeletingVisitor extends SimpleFileVisitor<Path> {
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+            rateLimiter.acquire();
+            Files.delete(file);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+            if (exc != null) {
+                throw exc;
+            }
+
+            rateLimiter.acquire();
+            Files.delete(dir);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Registry for very large catalogs. Items with UUID identifiers are kept
+ * in open addressing table keyed by two longs of identifier, item itself
+ * is kept as compact binary record, see {@link ItemCodec#encodeLinked},
+ * in large byte chunks, optionally allocated off heap. Per item there are
+ * no node, identifier or item objects, {@link Item} is decoded on request
+ * together with its parents.
+ * <p>
+ * Readers don't take locks: they read optimistically and retry under read
+ * lock only when write happened meanwhile. Optimistic reader may see table
+ * and chunks of different writes, so record address and length are checked
+ * against chunk before record is copied. Writers are serialized.
+ * <p>
+ * Decoded items aren't cached: every lookup decodes item and each of its
+ * ancestors from their records, so it costs one table probe and one record
+ * decode per level of item's depth. Callers looking up many items of one
+ * directory should reuse parent they already hold instead of looking it up.
+ * Unregistered and replaced records are reclaimed when table is rehashed.
+ * Items with path identifiers are kept in ordinary map.
+ * <p>
+ * It's a standalone experiment with compact storage, deliberately kept out
+ * of outbound ports services depend on: there is no children index, so
+ * unregistered directory doesn't take its descendants along, and records
+ * hold no version, so item can't be replaced conditionally. Don't wire it
+ * as registry until it has both.
+ */
+@Slf4j
+class CompactItemRegistry {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+    private static final long EMPTY = -1L;
+    private static final long DELETED = -2L;
+
+    private final StampedLock lock = new StampedLock();
+    private final boolean offHeap;
+    private final Map<ItemId, Item> pathItems = new ConcurrentHashMap<>();
+
+    /**
+     * Two longs of identifier per slot.
+     */
+    private long[] keys;
+
+    /**
+     * Address of record per slot, chunk index in high and offset in low
+     * half, or {@link #EMPTY}, or {@link #DELETED}.
+     */
+    private long[] addresses;
+    private ByteBuffer[] chunks;
+    private int chunkCount;
+    private int size;
+    private int deleted;
+    private long garbageBytes;
+
+    CompactItemRegistry() {
+        this(false);
+    }
+
+    /**
+     * @param offHeap whether records kept in direct memory
+     */
+    CompactItemRegistry(final boolean offHeap) {
+        this.offHeap = offHeap;
+        this.keys = new long[INITIAL_CAPACITY * 2];
+        this.addresses = newAddresses(INITIAL_CAPACITY);
+        this.chunks = new ByteBuffer[16];
+    }
+
+    @NonNull
+    public Item getItemById(@NonNull final ItemId id) {
+        if (id == null) {
+            throw new InvalidItemIdException();
+        }
+
+        final Optional<UUID> uuid = id.asUUID();
+        final Item item = uuid.isPresent() ? find(uuid.get()) : pathItems.get(id);
+        if (item == null) {
+            throw new ItemNotFoundException(id);
+        }
+
+        return item;
+    }
+
+    public void register(@NonNull final Item item) {
+        final Optional<UUID> uuid = item.getId().asUUID();
+        if (uuid.isEmpty()) {
+            pathItems.put(item.getId(), item);
+            return;
+        }
+
+        final byte[] record = ItemCodec.encodeLinked(item);
+        final long stamp = lock.writeLock();
+        try {
+            if ((size + deleted + 1) > capacity() * MAX_LOAD_FACTOR) {
+                rehash();
+            }
+
+            final long mostSignificantBits = uuid.get().getMostSignificantBits();
+            final long leastSignificantBits = uuid.get().getLeastSignificantBits();
+            final int slot = findSlotForInsert(mostSignificantBits, leastSignificantBits);
+            final long previous = addresses[slot];
+            if (previous >= 0L) {
+                garbageBytes += Integer.BYTES + readLength(chunks, previous);
+            } else {
+                if (previous == DELETED) {
+                    deleted--;
+                }
+                size++;
+            }
+
+            keys[slot * 2] = mostSignificantBits;
+            keys[slot * 2 + 1] = leastSignificantBits;
+            addresses[slot] = append(record);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void registerAll(@NonNull final Collection<? extends Item> items) {
+        for (final Item item : items) {
+            register(item);
+        }
+    }
+
+    public void unregister(@NonNull final ItemId id) {
+        final Optional<UUID> uuid = id.asUUID();
+        if (uuid.isEmpty()) {
+            pathItems.remove(id);
+            return;
+        }
+
+        final long stamp = lock.writeLock();
+        try {
+            final int slot = findSlot(keys, addresses, uuid.get().getMostSignificantBits(),
+                    uuid.get().getLeastSignificantBits());
+            if (slot >= 0) {
+                garbageBytes += Integer.BYTES + readLength(chunks, addresses[slot]);
+                addresses[slot] = DELETED;
+                size--;
+                deleted++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns number of registered items.
+     */
+    public int size() {
+        final long stamp = lock.readLock();
+        try {
+            return size + pathItems.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Item find(final UUID uuid) {
+        final byte[] record = readRecord(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (record == null) {
+            return null;
+        }
+
+        try {
+            return ItemCodec.decodeLinked(record, this::findParent);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to decode item with id '" + uuid + "'", exc);
+        }
+    }
+
+    private Item findParent(final ItemId parentId) {
+        final Optional<UUID> uuid = parentId.asUUID();
+        final Item parent = uuid.isPresent() ? find(uuid.get()) : pathItems.get(parentId);
+        if (parent == null) {
+            log.warn("Parent with id '{}' isn't registered", parentId);
+        }
+
+        return parent;
+    }
+
+    private byte[] readRecord(final long mostSignificantBits, final long leastSignificantBits) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                final byte[] record = readRecord(keys, addresses, chunks, mostSignificantBits, leastSignificantBits);
+                if (lock.validate(stamp)) {
+                    return record;
+                }
+            } catch (RuntimeException exc) {
+                if (lock.validate(stamp)) {
+                    throw exc;
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return readRecord(keys, addresses, chunks, mostSignificantBits, leastSignificantBits);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static byte[] readRecord(final long[] keys, final long[] addresses, final ByteBuffer[] chunks,
+                                     final long mostSignificantBits, final long leastSignificantBits) {
+        final int slot = findSlot(keys, addresses, mostSignificantBits, leastSignificantBits);
+        if (slot < 0) {
+            return null;
+        }
+
+        final long address = addresses[slot];
+        final int chunkIndex = (int) (address >>> 32);
+        final ByteBuffer chunk = chunkIndex < chunks.length ? chunks[chunkIndex] : null;
+        final int offset = (int) address;
+        if (chunk == null || offset < 0 || offset > chunk.capacity() - Integer.BYTES) {
+            throw new IllegalStateException("Record address out of chunks: " + address);
+        }
+
+        final int length = chunk.getInt(offset);
+        if (length < 0 || length > chunk.capacity() - offset - Integer.BYTES) {
+            throw new IllegalStateException("Record length out of chunk: " + length);
+        }
+
+        final byte[] record = new byte[length];
+        if (chunk.hasArray()) {
+            System.arraycopy(chunk.array(), chunk.arrayOffset() + offset + Integer.BYTES, record, 0, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                record[i] = chunk.get(offset + Integer.BYTES + i);
+            }
+        }
+
+        return record;
+    }
+
+    private static int findSlot(final long[] keys, final long[] addresses, final long mostSignificantBits,
+                                final long leastSignificantBits) {
+        final int mask = addresses.length - 1;
+        for (int slot = hash(mostSignificantBits, leastSignificantBits) & mask, probes = 0;
+             probes < addresses.length; slot = (slot + 1) & mask, probes++) {
+            final long address = addresses[slot];
+            if (address == EMPTY) {
+                return -1;
+            } else if (address != DELETED && keys[slot * 2] == mostSignificantBits
+                    && keys[slot * 2 + 1] == leastSignificantBits) {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    private int findSlotForInsert(final long mostSignificantBits, final long leastSignificantBits) {
+        final int existing = findSlot(keys, addresses, mostSignificantBits, leastSignificantBits);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        final int mask = addresses.length - 1;
+        int slot = hash(mostSignificantBits, leastSignificantBits) & mask;
+        while (addresses[slot] >= 0L) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Rebuilds table dropping deleted slots, table grows when it's filled
+     * by live items. Records are compacted when most of arena is garbage.
+     */
+    private void rehash() {
+        final int capacity = (size + 1) > capacity() * MAX_LOAD_FACTOR / 2 ? capacity() * 2 : capacity();
+        final boolean compact = garbageBytes > usedBytes() / 2;
+        final long[] oldKeys = keys;
+        final long[] oldAddresses = addresses;
+        final ByteBuffer[] oldChunks = chunks;
+        final int oldChunkCount = chunkCount;
+
+        final long[] newKeys = new long[capacity * 2];
+        final long[] newAddresses = newAddresses(capacity);
+        if (compact) {
+            chunks = new ByteBuffer[16];
+            chunkCount = 0;
+            garbageBytes = 0L;
+        }
+
+        final int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldAddresses.length; oldSlot++) {
+            long address = oldAddresses[oldSlot];
+            if (address < 0L) {
+                continue;
+            }
+
+            final long mostSignificantBits = oldKeys[oldSlot * 2];
+            final long leastSignificantBits = oldKeys[oldSlot * 2 + 1];
+            if (compact) {
+                address = append(readRecordAt(oldChunks, address));
+            }
+
+            int slot = hash(mostSignificantBits, leastSignificantBits) & mask;
+            while (newAddresses[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            newKeys[slot * 2] = mostSignificantBits;
+            newKeys[slot * 2 + 1] = leastSignificantBits;
+            newAddresses[slot] = address;
+        }
+
+        keys = newKeys;
+        addresses = newAddresses;
+        deleted = 0;
+        log.debug("Registry table rehashed, capacity: {}, items: {}, chunks: {} -> {}",
+                capacity, size, oldChunkCount, chunkCount);
+    }
+
+    private long append(final byte[] record) {
+        final int required = Integer.BYTES + record.length;
+        ByteBuffer chunk = chunkCount > 0 ? chunks[chunkCount - 1] : null;
+        if (chunk == null || chunk.remaining() < required) {
+            chunk = offHeap
+                    ? ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, required))
+                    : ByteBuffer.allocate(Math.max(CHUNK_SIZE, required));
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunkCount++] = chunk;
+        }
+
+        final int offset = chunk.position();
+        chunk.putInt(record.length);
+        chunk.put(record);
+        return (long) (chunkCount - 1) << 32 | offset;
+    }
+
+    private static byte[] readRecordAt(final ByteBuffer[] chunks, final long address) {
+        final ByteBuffer chunk = chunks[(int) (address >>> 32)].duplicate();
+        chunk.position((int) address);
+        final byte[] record = new byte[chunk.getInt()];
+        chunk.get(record);
+        return record;
+    }
+
+    private static int readLength(final ByteBuffer[] chunks, final long address) {
+        return chunks[(int) (address >>> 32)].getInt((int) address);
+    }
+
+    private long usedBytes() {
+        long used = 0L;
+        for (int i = 0; i < chunkCount; i++) {
+            used += chunks[i].position();
+        }
+
+        return used;
+    }
+
+    private int capacity() {
+        return addresses.length;
+    }
+
+    private static long[] newAddresses(final int capacity) {
+        final long[] addresses = new long[capacity];
+        Arrays.fill(addresses, EMPTY);
+        return addresses;
+    }
+
+    private static int hash(final long mostSignificantBits, final long leastSignificantBits) {
+        long bits = mostSignificantBits * 0x9E3779B97F4A7C15L ^ leastSignificantBits;
+        bits ^= bits >>> 32;
+        return (int) bits;
+    }
+
+    private static class InvalidItemIdException extends AbstractServiceException {
+        private InvalidItemIdException() {
+            super("ItemId is null");
+        }
+    }
+
+    private static class ItemNotFoundException extends AbstractServiceException {
+        private ItemNotFoundException(final ItemId id) {
+            super("Item with id '" + id + "' not found");
+        }
+    }
+}
@@ -1,24 +1,63 @@
 package com.artemsirosh.lite.sftp.persistence;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
 import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.domain.ItemId;
 import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
 import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ReplaceItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ResolveItemPathPort;
 import com.artemsirosh.lite.sftp.port.outbound.UnregisterItemPort;
 
-public class InMemoryItemRegistry implements GetItemByIdPort, RegisterItemPort, UnregisterItemPort {
+/**
+ * Keeps items in heap. Besides items by id registry maintains index of
+ * children names by parent id, so directory listing is served from
+ * memory in O(children), its page in O(log children + page) and path is
+ * resolved with one name lookup per path element. Unregistered directory
+ * takes its descendants along.
+ */
+public class InMemoryItemRegistry implements GetItemByIdPort, RegisterItemPort, UnregisterItemPort,
+    ReplaceItemPort, GetDirectoryListingPort, ResolveItemPathPort {
 
     private final Map<ItemId, Item> storage;
 
+    /**
+     * Children ids ordered by name, keyed by parent id. Updated within
+     * the same atomic operation on {@link #storage} as item itself.
+     */
+    private final Map<ItemId, ConcurrentNavigableMap<String, ItemId>> children = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of top level items, i.e. items w/o parent, by name.
+     */
+    private final ConcurrentNavigableMap<String, ItemId> topLevelItems = new ConcurrentSkipListMap<>();
+
     public InMemoryItemRegistry(final Map<ItemId, Item> preloadedData) {
         this.storage = new ConcurrentHashMap<>(preloadedData);
+        this.storage.values().forEach(this::indexChild);
     }
 
     @NonNull
@@ -34,12 +73,172 @@ public class InMemoryItemRegistry implements GetItemByIdPort, RegisterItemPort,
 
     @Override
     public void register(Item item) {
-        storage.put(item.getId(), item);
+        storage.compute(item.getId(), (id, previous) -> {
+            onRegister(item);
+            if (previous != null) {
+                unindexChild(previous);
+            }
+            indexChild(item);
+            return item;
+        });
+    }
+
+    /**
+     * Replaces item within atomic operation on its id, so concurrent
+     * replacements of different items don't contend.
+     */
+    @Override
+    public boolean replace(@NonNull final Item item, final long expectedVersion) {
+        final Item result = storage.compute(item.getId(), (id, previous) -> {
+            if (previous == null) {
+                throw new InMemStorageException(id);
+            } else if (previous.getVersion() != expectedVersion) {
+                return previous;
+            }
+
+            onReplace(item);
+            unindexChild(previous);
+            indexChild(item);
+            return item;
+        });
+
+        return result == item;
+    }
+
+    /**
+     * Called when item is about to be registered, within atomic operation
+     * on its id, so changes of the same item are observed in order they're
+     * applied. Exception thrown cancels registration.
+     */
+    void onRegister(final Item item) {
+    }
+
+    /**
+     * Called when item is about to replace registered one, within atomic
+     * operation on its id. Exception thrown cancels replacement.
+     */
+    void onReplace(final Item item) {
     }
 
+    /**
+     * Called when registered item is about to be unregistered, within
+     * atomic operation on its id. Exception thrown cancels unregistration.
+     */
+    void onUnregister(final ItemId id) {
+    }
+
+    /**
+     * Unregisters item together with its descendants, found by children
+     * index, so no descendant remains reachable after its ancestor is gone.
+     */
     @Override
     public void unregister(ItemId id) {
-        storage.remove(id);
+        final Deque<ItemId> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty()) {
+            final ItemId next = pending.pop();
+            final NavigableMap<String, ItemId> names = children.get(next);
+            if (names != null) {
+                names.values().forEach(pending::push);
+            }
+
+            storage.computeIfPresent(next, (key, previous) -> {
+                onUnregister(key);
+                unindexChild(previous);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Lists registered children of directory ordered by name.
+     */
+    @NonNull
+    @Override
+    public DirectoryListing getListing(@NonNull final Directory directory) {
+        final Set<Item> items = new LinkedHashSet<>();
+        collectChildren(getChildNames(directory).values().iterator(), Integer.MAX_VALUE, items);
+        return new DirectoryListing(directory, items);
+    }
+
+    @NonNull
+    @Override
+    public DirectoryListingPage getListingPage(@NonNull final Directory directory, @Nullable final String afterName,
+                                               final int limit) {
+        final NavigableMap<String, ItemId> names = afterName == null
+            ? getChildNames(directory)
+            : getChildNames(directory).tailMap(afterName, false);
+
+        final Iterator<ItemId> ids = names.values().iterator();
+        final List<Item> items = new ArrayList<>(Math.min(limit, 1024));
+        collectChildren(ids, limit, items);
+        return DirectoryListingPage.of(directory, items, ids.hasNext());
+    }
+
+    @NonNull
+    @Override
+    public Optional<ItemId> resolvePath(@NonNull final List<String> path) {
+        Map<String, ItemId> names = topLevelItems;
+        ItemId id = null;
+        for (final String name : path) {
+            if (names == null) {
+                return Optional.empty();
+            }
+
+            id = names.get(name);
+            if (id == null) {
+                return Optional.empty();
+            }
+            names = children.get(id);
+        }
+
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Returns live view of registered items.
+     */
+    Collection<Item> getRegisteredItems() {
+        return Collections.unmodifiableCollection(storage.values());
+    }
+
+    private NavigableMap<String, ItemId> getChildNames(final Directory directory) {
+        final NavigableMap<String, ItemId> names = children.get(directory.getId());
+        return names != null ? names : Collections.emptyNavigableMap();
+    }
+
+    private void collectChildren(final Iterator<ItemId> ids, final int limit, final Collection<Item> target) {
+        while (target.size() < limit && ids.hasNext()) {
+            final Item child = storage.get(ids.next());
+            if (child != null) {
+                target.add(child);
+            }
+        }
+    }
+
+    private void indexChild(final Item item) {
+        final Item parent = item.getParent();
+        if (parent == null && item.getName() != null) {
+            topLevelItems.put(item.getName(), item.getId());
+        } else if (parent != null && parent.getId() != null && item.getName() != null) {
+            children.compute(parent.getId(), (id, names) -> {
+                final var indexed = names != null ? names : new ConcurrentSkipListMap<String, ItemId>();
+                indexed.put(item.getName(), item.getId());
+                return indexed;
+            });
+        }
+    }
+
+    private void unindexChild(final Item item) {
+        final Item parent = item.getParent();
+        if (parent == null && item.getName() != null) {
+            topLevelItems.remove(item.getName(), item.getId());
+        } else if (parent != null && parent.getId() != null && item.getName() != null) {
+            children.computeIfPresent(parent.getId(), (id, names) -> {
+                names.remove(item.getName(), item.getId());
+                return names.isEmpty() ? null : names;
+            });
+        }
     }
 
     private static class InvalidItemIdException extends AbstractServiceException {
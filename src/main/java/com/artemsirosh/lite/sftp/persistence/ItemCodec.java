@@ -0,0 +1,278 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Compact binary form of {@link Item}. Record holds item itself and chain
+ * of its ancestors, so it could be decoded w/o any other record. Ancestors
+ * already known to decoder are shared instead of being rebuilt. UUID
+ * identifiers take 17 bytes.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ItemCodec {
+
+    private static final byte DIRECTORY = 1;
+    private static final byte FILE = 2;
+
+    private static final byte PATH_ID = 1;
+    private static final byte UUID_ID = 2;
+
+    static byte[] encode(final Item item) {
+        final var bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writeItem(output, item);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to encode item: " + item, exc);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    static Item decode(final byte[] record, final Function<ItemId, Item> knownItems) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            return readItem(input, knownItems);
+        }
+    }
+
+    /**
+     * Encodes item with identifier of its parent instead of ancestors
+     * chain, for stores able to look parent up.
+     */
+    static byte[] encodeLinked(final Item item) {
+        final var bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writeEntry(output, item);
+            output.writeBoolean(item.getParent() != null);
+            if (item.getParent() != null) {
+                writeItemId(output, item.getParent().getId());
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to encode item: " + item, exc);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes item encoded by {@link #encodeLinked(Item)}.
+     *
+     * @param parents resolves parent by its identifier
+     */
+    static Item decodeLinked(final byte[] record, final Function<ItemId, Item> parents) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            final Entry entry = readEntry(input);
+            final Item parent = input.readBoolean() ? parents.apply(readItemId(input)) : null;
+            return entry.toItem(parent);
+        }
+    }
+
+    /**
+     * Encodes item like {@link #encodeLinked(Item)} along with its version,
+     * for stores checking version on replacement.
+     */
+    static byte[] encodeVersioned(final Item item) {
+        final var bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.write(encodeLinked(item));
+            output.writeLong(item.getVersion());
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to encode item: " + item, exc);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes item encoded by {@link #encodeVersioned(Item)}.
+     *
+     * @param parents resolves parent by its identifier
+     */
+    static Item decodeVersioned(final byte[] record, final Function<ItemId, Item> parents) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            final Entry entry = readEntry(input);
+            final Item parent = input.readBoolean() ? parents.apply(readItemId(input)) : null;
+            return entry.toItem(parent, input.readLong());
+        }
+    }
+
+    static byte[] encodeItemId(final ItemId id) {
+        final var bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writeItemId(output, id);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to encode item id: " + id, exc);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    static ItemId decodeItemId(final byte[] record) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            return readItemId(input);
+        }
+    }
+
+    static void writeItem(final DataOutput output, final Item item) throws IOException {
+        writeEntry(output, item);
+        final List<Item> ancestors = new ArrayList<>();
+        for (Item ancestor = item.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            ancestors.add(ancestor);
+        }
+
+        output.writeShort(ancestors.size());
+        for (final Item ancestor : ancestors) {
+            writeEntry(output, ancestor);
+        }
+    }
+
+    static Item readItem(final DataInput input, final Function<ItemId, Item> knownItems) throws IOException {
+        final Entry item = readEntry(input);
+        final int ancestorCount = input.readUnsignedShort();
+        final List<Entry> ancestors = new ArrayList<>(ancestorCount);
+        for (int i = 0; i < ancestorCount; i++) {
+            ancestors.add(readEntry(input));
+        }
+
+        return item.toItem(link(ancestors, 0, knownItems));
+    }
+
+    static void writeItemId(final DataOutput output, final ItemId id) throws IOException {
+        final Optional<UUID> uuid = id.asUUID();
+        if (uuid.isPresent()) {
+            output.writeByte(UUID_ID);
+            output.writeLong(uuid.get().getMostSignificantBits());
+            output.writeLong(uuid.get().getLeastSignificantBits());
+            return;
+        }
+
+        output.writeByte(PATH_ID);
+        output.writeShort(id.getPath().size());
+        for (final CharSequence element : id.getPath()) {
+            output.writeUTF(element.toString());
+        }
+    }
+
+    static ItemId readItemId(final DataInput input) throws IOException {
+        final byte form = input.readByte();
+        if (form == UUID_ID) {
+            return ItemId.of(new UUID(input.readLong(), input.readLong()));
+        } else if (form != PATH_ID) {
+            throw new IOException("Unknown item id form: " + form);
+        }
+
+        final int size = input.readUnsignedShort();
+        final List<CharSequence> path = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            path.add(input.readUTF());
+        }
+
+        return ItemId.of(path);
+    }
+
+    private static Item link(final List<Entry> ancestors, final int index, final Function<ItemId, Item> knownItems) {
+        if (index == ancestors.size()) {
+            return null;
+        }
+
+        final Entry entry = ancestors.get(index);
+        final Item known = knownItems.apply(entry.id);
+        if (known != null) {
+            return known;
+        }
+
+        return entry.toItem(link(ancestors, index + 1, knownItems));
+    }
+
+    private static void writeEntry(final DataOutput output, final Item item) throws IOException {
+        if (item.isDirectory()) {
+            output.writeByte(DIRECTORY);
+        } else {
+            output.writeByte(FILE);
+        }
+
+        writeItemId(output, item.getId());
+        output.writeBoolean(item.getName() != null);
+        if (item.getName() != null) {
+            output.writeUTF(item.getName());
+        }
+        final Instant modifiedDate = item instanceof File ? ((File) item).getModifiedDate() : null;
+        output.writeBoolean(modifiedDate != null);
+        if (modifiedDate != null) {
+            output.writeLong(modifiedDate.getEpochSecond());
+            output.writeInt(modifiedDate.getNano());
+        }
+    }
+
+    private static Entry readEntry(final DataInput input) throws IOException {
+        final byte kind = input.readByte();
+        if (kind != DIRECTORY && kind != FILE) {
+            throw new IOException("Unknown item kind: " + kind);
+        }
+
+        final ItemId id = readItemId(input);
+        final String name = input.readBoolean() ? input.readUTF() : null;
+        final Instant modifiedDate = input.readBoolean()
+                ? Instant.ofEpochSecond(input.readLong(), input.readInt())
+                : null;
+
+        return new Entry(kind, id, name, modifiedDate);
+    }
+
+    private static class Entry {
+
+        private final byte kind;
+        private final ItemId id;
+        private final String name;
+        private final Instant modifiedDate;
+
+        Entry(final byte kind, final ItemId id, final String name, final Instant modifiedDate) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+            this.modifiedDate = modifiedDate;
+        }
+
+        Item toItem(final Item parent) {
+            return toItem(parent, 0L);
+        }
+
+        Item toItem(final Item parent, final long version) {
+            if (kind == DIRECTORY) {
+                return Directory.builder()
+                        .id(id)
+                        .parent(parent)
+                        .name(name)
+                        .version(version)
+                        .build();
+            }
+
+            return File.builder()
+                    .id(id)
+                    .parent(parent)
+                    .name(name)
+                    .modifiedDate(modifiedDate)
+                    .version(version)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only log of registry changes split into numbered segments.
+ * Appending only copies framed record into memory buffer, buffer is
+ * written and forced to current segment by {@link #sync()}. Segments are
+ * never appended after restart, new segment is started instead.
+ * <p>
+ * Records are dropped from memory only once they're written. When writing
+ * fails, records are kept for the next attempt and new records are
+ * rejected until the journal is written successfully.
+ */
+@Slf4j
+class ItemJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final Lock ioLock = new ReentrantLock();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream pendingOutput = new DataOutputStream(pending);
+
+    /**
+     * Records taken from {@link #pending}, but not written yet. Guarded by
+     * {@link #ioLock}.
+     */
+    private byte[] unwritten = new byte[0];
+
+    /**
+     * Failure of the last write, {@code null} when it succeeded.
+     */
+    private volatile IOException failure;
+
+    private FileChannel segment;
+    private long segmentNumber;
+
+    ItemJournal(final Path directory, final long segmentNumber) throws IOException {
+        this.directory = directory;
+        this.segmentNumber = segmentNumber;
+        this.segment = openSegment(segmentNumber);
+    }
+
+    /**
+     * Buffers record, it becomes durable on next {@link #sync()}.
+     *
+     * @throws UncheckedIOException if the last write of journal failed
+     */
+    void append(final byte[] record) {
+        final IOException lastFailure = failure;
+        if (lastFailure != null) {
+            throw new UncheckedIOException("Journal isn't writable, record rejected", lastFailure);
+        }
+
+        synchronized (pending) {
+            try {
+                RecordFrames.write(pendingOutput, record);
+            } catch (IOException exc) {
+                throw new UncheckedIOException("Unable to buffer journal record", exc);
+            }
+        }
+    }
+
+    /**
+     * Writes buffered records to current segment and forces it to disk.
+     */
+    void sync() throws IOException {
+        ioLock.lock();
+        try {
+            writePending();
+            force();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Syncs and closes current segment and starts the next one.
+     *
+     * @return number of started segment
+     */
+    long rotate() throws IOException {
+        ioLock.lock();
+        try {
+            writePending();
+            force();
+            segment.close();
+            segment = openSegment(++segmentNumber);
+            return segmentNumber;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ioLock.lock();
+        try {
+            writePending();
+            force();
+            segment.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Returns journal segments in directory ordered by number.
+     */
+    static List<Path> listSegments(final Path directory) throws IOException {
+        final List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(
+                directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            entries.forEach(segments::add);
+        }
+
+        segments.sort(Comparator.comparingLong(ItemJournal::getSegmentNumber));
+        return segments;
+    }
+
+    static long getSegmentNumber(final Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Writes records kept from failed write and buffered ones. Records
+     * which weren't written are kept for the next attempt.
+     */
+    private void writePending() throws IOException {
+        synchronized (pending) {
+            if (pending.size() > 0) {
+                final byte[] buffered = pending.toByteArray();
+                final byte[] bytes = Arrays.copyOf(unwritten, unwritten.length + buffered.length);
+                System.arraycopy(buffered, 0, bytes, unwritten.length, buffered.length);
+                unwritten = bytes;
+                pending.reset();
+            }
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(unwritten);
+        try {
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+        } catch (IOException exc) {
+            failure = exc;
+            throw exc;
+        } finally {
+            unwritten = Arrays.copyOfRange(unwritten, buffer.position(), unwritten.length);
+        }
+    }
+
+    private void force() throws IOException {
+        try {
+            segment.force(false);
+            failure = null;
+        } catch (IOException exc) {
+            failure = exc;
+            throw exc;
+        }
+    }
+
+    private FileChannel openSegment(final long number) throws IOException {
+        final Path path = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        log.debug("Starting journal segment: {}", path);
+        return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+}
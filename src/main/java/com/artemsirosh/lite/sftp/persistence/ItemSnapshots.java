@@ -0,0 +1,175 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes and reads snapshots of registry. Snapshot number equals to number
+ * of the first journal segment which isn't covered by snapshot. Snapshot
+ * is written to temporary file and atomically renamed, so only complete
+ * snapshots are visible.
+ * <p>
+ * Items are written parents first, each with identifier of its parent
+ * only, see {@link ItemCodec#encodeLinked(Item)}, so ancestors aren't
+ * repeated per item. Item whose parent isn't registered is written with
+ * its whole ancestors chain.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ItemSnapshots {
+
+    private static final int LINKED_MAGIC = 0x4C534E51;
+
+    private static final byte LINKED = 1;
+    private static final byte CHAINED = 2;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    static void write(final Path directory, final long number, final Collection<Item> items) throws IOException {
+        final Path snapshot = directory.resolve(String.format("%s%019d%s", SNAPSHOT_PREFIX, number, SNAPSHOT_SUFFIX));
+        final Path temporary = directory.resolve(snapshot.getFileName() + ".part");
+        long count = 0L;
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING),
+                BUFFER_SIZE))) {
+            output.writeInt(LINKED_MAGIC);
+            final List<Item> parentsFirst = new ArrayList<>(items);
+            parentsFirst.sort(Comparator.comparingInt(ItemSnapshots::getDepth));
+            final Set<ItemId> written = new HashSet<>(parentsFirst.size() * 2);
+            for (final Item item : parentsFirst) {
+                final Item parent = item.getParent();
+                if (parent == null || written.contains(parent.getId())) {
+                    RecordFrames.write(output, tag(LINKED, ItemCodec.encodeLinked(item)));
+                } else {
+                    RecordFrames.write(output, tag(CHAINED, ItemCodec.encode(item)));
+                }
+                written.add(item.getId());
+                count++;
+            }
+            RecordFrames.writeEnd(output);
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+        log.info("Registry snapshot written: {}, {} items", snapshot, count);
+    }
+
+    /**
+     * Loads the latest snapshot into storage.
+     *
+     * @return number of loaded snapshot or zero if there is no snapshot
+     */
+    static long readLatest(final Path directory, final Map<ItemId, Item> storage) throws IOException {
+        final List<Path> snapshots = listSnapshots(directory);
+        if (snapshots.isEmpty()) {
+            return 0L;
+        }
+
+        final Path snapshot = snapshots.get(snapshots.size() - 1);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(snapshot), BUFFER_SIZE))) {
+            if (input.readInt() != LINKED_MAGIC) {
+                throw new IOException("Not a registry snapshot: " + snapshot);
+            }
+
+            for (byte[] record = RecordFrames.read(input); record != null; record = RecordFrames.read(input)) {
+                final Item item = decodeTagged(record, storage);
+                storage.put(item.getId(), item);
+            }
+        }
+
+        log.info("Registry snapshot loaded: {}, {} items", snapshot, storage.size());
+        return getSnapshotNumber(snapshot);
+    }
+
+    private static Item decodeTagged(final byte[] record, final Map<ItemId, Item> storage) throws IOException {
+        final byte[] body = Arrays.copyOfRange(record, 1, record.length);
+        switch (record[0]) {
+            case LINKED:
+                return ItemCodec.decodeLinked(body, storage::get);
+            case CHAINED:
+                return ItemCodec.decode(body, storage::get);
+            default:
+                throw new IOException("Unknown snapshot record: " + record[0]);
+        }
+    }
+
+    private static byte[] tag(final byte tag, final byte[] body) {
+        final byte[] record = new byte[body.length + 1];
+        record[0] = tag;
+        System.arraycopy(body, 0, record, 1, body.length);
+        return record;
+    }
+
+    private static int getDepth(final Item item) {
+        int depth = 0;
+        for (Item ancestor = item.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            depth++;
+        }
+
+        return depth;
+    }
+
+    /**
+     * Deletes snapshots older than given one.
+     */
+    static void deleteOlderThan(final Path directory, final long number) throws IOException {
+        for (final Path snapshot : listSnapshots(directory)) {
+            if (getSnapshotNumber(snapshot) < number) {
+                Files.delete(snapshot);
+            }
+        }
+    }
+
+    private static List<Path> listSnapshots(final Path directory) throws IOException {
+        final List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(
+                directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            entries.forEach(snapshots::add);
+        }
+
+        snapshots.sort(Comparator.comparingLong(ItemSnapshots::getSnapshotNumber));
+        return snapshots;
+    }
+
+    private static long getSnapshotNumber(final Path snapshot) {
+        final String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private static void forceDirectory(final Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException exc) {
+            log.debug("Unable to force directory '{}': {}", directory, exc.toString());
+        }
+    }
+}
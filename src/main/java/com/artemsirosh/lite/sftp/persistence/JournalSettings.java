@@ -0,0 +1,30 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Tuning of {@link JournaledItemRegistry}.
+ */
+@Value
+@Builder
+public class JournalSettings {
+
+    public static final JournalSettings DEFAULT = JournalSettings.builder().build();
+
+    /**
+     * Interval of writing buffered journal records to disk. Changes made
+     * within interval are lost on crash.
+     */
+    @Builder.Default
+    Duration groupCommitInterval = Duration.ofMillis(10L);
+
+    /**
+     * Interval of taking registry snapshots, which bounds journal tail
+     * replayed on startup.
+     */
+    @Builder.Default
+    Duration snapshotInterval = Duration.ofMinutes(10L);
+}
@@ -0,0 +1,267 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link InMemoryItemRegistry} which survives restarts. Every change is
+ * appended to {@link ItemJournal}, which is synced to disk at group commit
+ * intervals, and registry is periodically written to snapshot. Startup
+ * loads the latest snapshot and replays journal written after it.
+ * <p>
+ * When writing journal fails, buffered records are kept and written by the
+ * next sync, while new changes are rejected with exception until sync
+ * succeeds.
+ * <p>
+ * Snapshot starts from new journal segment, changes are paused only while
+ * segment is switched, so every change is either in snapshot or in journal
+ * replayed over it. Replay is idempotent, so change present in both is
+ * harmless.
+ */
+@Slf4j
+public class JournaledItemRegistry extends InMemoryItemRegistry implements Closeable {
+
+    private static final byte REGISTER = 1;
+    private static final byte UNREGISTER = 2;
+
+    private final Path directory;
+    private final ItemJournal journal;
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService scheduler;
+
+    private JournaledItemRegistry(final Map<ItemId, Item> recovered, final Path directory, final ItemJournal journal,
+                                  final JournalSettings settings) {
+        super(recovered);
+        this.directory = directory;
+        this.journal = journal;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("registry-journal-%d").setDaemon(true).build()
+        );
+
+        final long syncNanos = settings.getGroupCommitInterval().toNanos();
+        this.scheduler.scheduleWithFixedDelay(this::syncJournal, syncNanos, syncNanos, TimeUnit.NANOSECONDS);
+        final long snapshotNanos = settings.getSnapshotInterval().toNanos();
+        this.scheduler.scheduleWithFixedDelay(this::takeSnapshot, snapshotNanos, snapshotNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Recovers registry stored in directory, directory is created if it
+     * doesn't exist.
+     */
+    @NonNull
+    public static JournaledItemRegistry open(@NonNull final Path directory, @NonNull final JournalSettings settings) {
+        try {
+            Files.createDirectories(directory);
+            final Map<ItemId, Item> recovered = new HashMap<>();
+            final long snapshotNumber = ItemSnapshots.readLatest(directory, recovered);
+            final long lastSegmentNumber = replay(directory, snapshotNumber, recovered);
+            final var journal = new ItemJournal(directory, Math.max(snapshotNumber, lastSegmentNumber + 1));
+
+            return new JournaledItemRegistry(recovered, directory, journal, settings);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to recover registry from: '" + directory + "'", exc);
+        }
+    }
+
+    @Override
+    public void register(@NonNull final Item item) {
+        segmentLock.readLock().lock();
+        try {
+            super.register(item);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces item, replacement is journaled only when it takes place.
+     * Versions aren't journaled, they start from zero after recovery.
+     */
+    @Override
+    public boolean replace(@NonNull final Item item, final long expectedVersion) {
+        segmentLock.readLock().lock();
+        try {
+            return super.replace(item, expectedVersion);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void unregister(@NonNull final ItemId id) {
+        segmentLock.readLock().lock();
+        try {
+            super.unregister(id);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes are journaled within atomic operation on item's id, so records
+     * of the same item are journaled in order they're applied in memory.
+     */
+    @Override
+    void onRegister(final Item item) {
+        journal.append(encodeRegistration(item));
+    }
+
+    @Override
+    void onReplace(final Item item) {
+        journal.append(encodeRegistration(item));
+    }
+
+    @Override
+    void onUnregister(final ItemId id) {
+        final var record = new ByteArrayOutputStream(64);
+        try (DataOutputStream output = new DataOutputStream(record)) {
+            output.writeByte(UNREGISTER);
+            ItemCodec.writeItemId(output, id);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to encode item id: " + id, exc);
+        }
+
+        journal.append(record.toByteArray());
+    }
+
+    /**
+     * Writes snapshot of registry and drops journal segments and snapshots
+     * covered by it.
+     */
+    public void snapshot() throws IOException {
+        final long snapshotNumber;
+        segmentLock.writeLock().lock();
+        try {
+            snapshotNumber = journal.rotate();
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+
+        ItemSnapshots.write(directory, snapshotNumber, getRegisteredItems());
+        for (final Path segment : ItemJournal.listSegments(directory)) {
+            if (ItemJournal.getSegmentNumber(segment) < snapshotNumber) {
+                Files.delete(segment);
+            }
+        }
+        ItemSnapshots.deleteOlderThan(directory, snapshotNumber);
+    }
+
+    /**
+     * Stops background work and syncs journal.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1L, TimeUnit.MINUTES);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    /**
+     * Writes journaled changes to disk. Until failed sync is retried
+     * successfully, changes are rejected, see {@link ItemJournal#append}.
+     */
+    public void sync() throws IOException {
+        journal.sync();
+    }
+
+    private void syncJournal() {
+        try {
+            journal.sync();
+        } catch (IOException exc) {
+            log.error("Unable to sync registry journal, changes are rejected until sync succeeds", exc);
+        }
+    }
+
+    private void takeSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException exc) {
+            log.error("Unable to take registry snapshot", exc);
+        }
+    }
+
+    /**
+     * Replays journal segments starting from given number. Replay of segment
+     * stops at torn or corrupted record, which is expected at the tail of
+     * segment written before crash, and continues from the next segment.
+     *
+     * @return number of the last replayed segment
+     */
+    private static long replay(final Path directory, final long fromSegment, final Map<ItemId, Item> storage)
+            throws IOException {
+        long lastSegmentNumber = fromSegment;
+        long replayed = 0L;
+        final List<Path> segments = ItemJournal.listSegments(directory);
+        for (final Path segment : segments) {
+            final long segmentNumber = ItemJournal.getSegmentNumber(segment);
+            lastSegmentNumber = Math.max(lastSegmentNumber, segmentNumber);
+            if (segmentNumber < fromSegment) {
+                continue;
+            }
+
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+                for (byte[] record = RecordFrames.read(input); record != null; record = RecordFrames.read(input)) {
+                    apply(record, storage);
+                    replayed++;
+                }
+            } catch (IOException exc) {
+                log.warn("Journal segment '{}' replayed up to corrupted record: {}", segment, exc.toString());
+            }
+        }
+
+        log.info("Registry journal replayed: {} records", replayed);
+        return lastSegmentNumber;
+    }
+
+    private static void apply(final byte[] record, final Map<ItemId, Item> storage) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            final byte operation = input.readByte();
+            if (operation == REGISTER) {
+                final Item item = ItemCodec.readItem(input, storage::get);
+                storage.put(item.getId(), item);
+            } else if (operation == UNREGISTER) {
+                storage.remove(ItemCodec.readItemId(input));
+            } else {
+                throw new IOException("Unknown journal operation: " + operation);
+            }
+        }
+    }
+
+    private static byte[] encodeRegistration(final Item item) {
+        final var record = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(record)) {
+            output.writeByte(REGISTER);
+            ItemCodec.writeItem(output, item);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to encode item: " + item, exc);
+        }
+
+        return record.toByteArray();
+    }
+}
@@ -0,0 +1,403 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
+import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
+import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ReplaceItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ResolveItemPathPort;
+import com.artemsirosh.lite.sftp.port.outbound.UnregisterItemPort;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.Striped;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Registry kept in embedded H2 MVStore file, so catalog isn't limited by
+ * heap and survives restarts. Items are stored in compact binary form,
+ * referencing parent by identifier; recently used items are kept in
+ * bounded heap cache, so parent chains of hot items are shared and
+ * aren't decoded again.
+ * <p>
+ * Besides items by id store keeps index of children ids keyed by parent id
+ * and child name, so directory listing and its page are range scans of the
+ * index, path is resolved with one index lookup per path element and
+ * unregistered directory takes its descendants along. Item and its index
+ * entry are updated under lock striped by item id, index entries are
+ * removed only if they still refer to the same item. Every modification is
+ * committed before it returns.
+ */
+@Slf4j
+public class MVStoreItemRegistry implements GetItemByIdPort, RegisterItemPort, UnregisterItemPort,
+        ReplaceItemPort, GetDirectoryListingPort, ResolveItemPathPort, Closeable {
+
+    private static final String ITEMS_MAP_NAME = "items";
+    private static final String CHILDREN_MAP_NAME = "children";
+
+    /**
+     * Separates parent id from child name in children index key. Parent id
+     * is hex encoded, so separator never occurs in it, and children of one
+     * parent are adjacent and ordered by name.
+     */
+    private static final char NAME_SEPARATOR = '\u0000';
+
+    /**
+     * Children index key prefix of top level items, i.e. items w/o parent.
+     */
+    private static final String TOP_LEVEL_PREFIX = String.valueOf(NAME_SEPARATOR);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final MVStore store;
+    private final MVMap<byte[], byte[]> items;
+    private final MVMap<String, byte[]> children;
+    private final Cache<ItemId, Item> cache;
+    private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+
+    /**
+     * Opens registry stored in given file, file is created if it doesn't
+     * exist.
+     *
+     * @param storeFile MVStore file
+     * @param cacheSize maximum number of items kept in heap
+     */
+    public MVStoreItemRegistry(@NonNull final Path storeFile, final long cacheSize) {
+        this.store = new MVStore.Builder()
+                .fileName(storeFile.toString())
+                .compress()
+                .open();
+        this.items = store.openMap(ITEMS_MAP_NAME);
+        this.children = store.openMap(CHILDREN_MAP_NAME);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+        log.info("Item registry opened: {}, {} items", storeFile, items.sizeAsLong());
+    }
+
+    @NonNull
+    @Override
+    public Item getItemById(@NonNull final ItemId id) {
+        if (id == null) {
+            throw new InvalidItemIdException();
+        }
+
+        final Item cached = cache.getIfPresent(id);
+        return cached != null ? cached : loadAndCache(id);
+    }
+
+    @Override
+    public void register(@NonNull final Item item) {
+        registerItem(item);
+        store.commit();
+    }
+
+    @Override
+    public void registerAll(@NonNull final Collection<? extends Item> batch) {
+        batch.forEach(this::registerItem);
+        store.commit();
+    }
+
+    /**
+     * Replaces item under lock of its id, so concurrent replacements of
+     * different items mostly don't contend.
+     */
+    @Override
+    public boolean replace(@NonNull final Item item, final long expectedVersion) {
+        final Lock lock = locks.get(item.getId());
+        lock.lock();
+        try {
+            final byte[] key = ItemCodec.encodeItemId(item.getId());
+            final byte[] previous = items.get(key);
+            if (previous == null) {
+                throw new ItemNotFoundException(item.getId());
+            } else if (decodeDetached(previous).getVersion() != expectedVersion) {
+                return false;
+            }
+
+            items.put(key, ItemCodec.encodeVersioned(item));
+            unindexChild(item.getId(), previous);
+            indexChild(item);
+            cache.put(item.getId(), item);
+        } finally {
+            lock.unlock();
+        }
+
+        store.commit();
+        return true;
+    }
+
+    /**
+     * Unregisters item together with its descendants, found by children
+     * index, so no descendant remains reachable after its ancestor is gone.
+     */
+    @Override
+    public void unregister(@NonNull final ItemId id) {
+        unregisterTree(id);
+        store.commit();
+    }
+
+    @Override
+    public void unregisterAll(@NonNull final Collection<ItemId> ids) {
+        ids.forEach(this::unregisterTree);
+        store.commit();
+    }
+
+    private void unregisterTree(final ItemId id) {
+        final Deque<ItemId> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty()) {
+            final ItemId next = pending.pop();
+            final String prefix = childKeyPrefix(next);
+            final Cursor<String, byte[]> cursor = children.cursor(prefix);
+            while (cursor.hasNext() && cursor.next().startsWith(prefix)) {
+                pending.push(decodeItemId(cursor.getValue()));
+            }
+
+            unregisterItem(next);
+        }
+    }
+
+    /**
+     * Lists registered children of directory ordered by name.
+     */
+    @NonNull
+    @Override
+    public DirectoryListing getListing(@NonNull final Directory directory) {
+        final Set<Item> listed = new LinkedHashSet<>();
+        collectChildren(childKeyPrefix(directory.getId()), null, Integer.MAX_VALUE, listed);
+        return new DirectoryListing(directory, listed);
+    }
+
+    @NonNull
+    @Override
+    public DirectoryListingPage getListingPage(@NonNull final Directory directory, @Nullable final String afterName,
+                                               final int limit) {
+        final List<Item> listed = new ArrayList<>(Math.min(limit, 1024));
+        final boolean hasMore = collectChildren(childKeyPrefix(directory.getId()), afterName, limit, listed);
+        return DirectoryListingPage.of(directory, listed, hasMore);
+    }
+
+    @NonNull
+    @Override
+    public Optional<ItemId> resolvePath(@NonNull final List<String> path) {
+        String prefix = TOP_LEVEL_PREFIX;
+        ItemId id = null;
+        for (final String name : path) {
+            final byte[] child = children.get(prefix + name);
+            if (child == null) {
+                return Optional.empty();
+            }
+
+            id = decodeItemId(child);
+            prefix = childKeyPrefix(id);
+        }
+
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Commits pending changes and closes store file.
+     */
+    @Override
+    public void close() {
+        cache.invalidateAll();
+        store.close();
+    }
+
+    /**
+     * Decodes item w/o holding its lock, as parents are looked up while
+     * decoding, and caches it under the lock only if its record is still
+     * the decoded one, so item loaded concurrently with its unregistering
+     * or replacement never stays in cache.
+     */
+    private Item loadAndCache(final ItemId id) {
+        final byte[] key = ItemCodec.encodeItemId(id);
+        while (true) {
+            final byte[] record = items.get(key);
+            if (record == null) {
+                throw new ItemNotFoundException(id);
+            }
+
+            final Item item;
+            try {
+                item = ItemCodec.decodeVersioned(record, this::getParent);
+            } catch (IOException exc) {
+                throw new UncheckedIOException("Unable to decode item with id '" + id + "'", exc);
+            }
+
+            final Lock lock = locks.get(id);
+            lock.lock();
+            try {
+                if (Arrays.equals(record, items.get(key))) {
+                    cache.put(id, item);
+                    return item;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void registerItem(final Item item) {
+        final Lock lock = locks.get(item.getId());
+        lock.lock();
+        try {
+            final byte[] previous = items.put(ItemCodec.encodeItemId(item.getId()), ItemCodec.encodeVersioned(item));
+            if (previous != null) {
+                unindexChild(item.getId(), previous);
+            }
+            indexChild(item);
+            cache.put(item.getId(), item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Collects children in name order, starting after given name.
+     *
+     * @return {@code true} if there are more children than collected
+     */
+    private boolean collectChildren(final String prefix, @Nullable final String afterName, final int limit,
+                                    final Collection<Item> target) {
+        final String from = afterName == null ? prefix : prefix + afterName;
+        final Cursor<String, byte[]> cursor = children.cursor(from);
+        while (cursor.hasNext()) {
+            final String key = cursor.next();
+            if (!key.startsWith(prefix)) {
+                return false;
+            } else if (afterName != null && key.equals(from)) {
+                continue;
+            } else if (target.size() == limit) {
+                return true;
+            }
+
+            final Item child = findItem(decodeItemId(cursor.getValue()));
+            if (child != null) {
+                target.add(child);
+            }
+        }
+
+        return false;
+    }
+
+    private void unregisterItem(final ItemId id) {
+        final Lock lock = locks.get(id);
+        lock.lock();
+        try {
+            final byte[] previous = items.remove(ItemCodec.encodeItemId(id));
+            if (previous != null) {
+                unindexChild(id, previous);
+            }
+            cache.invalidate(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Item findItem(final ItemId id) {
+        try {
+            return getItemById(id);
+        } catch (ItemNotFoundException exc) {
+            return null;
+        }
+    }
+
+    private void indexChild(final Item item) {
+        final String key = childKey(item);
+        if (key != null) {
+            children.put(key, ItemCodec.encodeItemId(item.getId()));
+        }
+    }
+
+    private void unindexChild(final ItemId id, final byte[] record) {
+        final String key = childKey(decodeDetached(record));
+        if (key != null) {
+            children.remove(key, ItemCodec.encodeItemId(id));
+        }
+    }
+
+    /**
+     * Decodes record w/o looking its parent up, parent is just a directory
+     * with stored identifier, enough to locate item in children index.
+     */
+    private static Item decodeDetached(final byte[] record) {
+        try {
+            return ItemCodec.decodeVersioned(record, parentId -> Directory.builder().id(parentId).build());
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to decode item record", exc);
+        }
+    }
+
+    private static ItemId decodeItemId(final byte[] record) {
+        try {
+            return ItemCodec.decodeItemId(record);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to decode item id", exc);
+        }
+    }
+
+    @Nullable
+    private static String childKey(final Item item) {
+        if (item.getName() == null) {
+            return null;
+        } else if (item.getParent() == null) {
+            return TOP_LEVEL_PREFIX + item.getName();
+        } else if (item.getParent().getId() != null) {
+            return childKeyPrefix(item.getParent().getId()) + item.getName();
+        }
+
+        return null;
+    }
+
+    private static String childKeyPrefix(final ItemId parentId) {
+        return BaseEncoding.base16().encode(ItemCodec.encodeItemId(parentId)) + NAME_SEPARATOR;
+    }
+
+    private Item getParent(final ItemId parentId) {
+        try {
+            return getItemById(parentId);
+        } catch (ItemNotFoundException exc) {
+            log.warn("Parent with id '{}' isn't registered", parentId);
+            return null;
+        }
+    }
+
+    private static class InvalidItemIdException extends AbstractServiceException {
+        private InvalidItemIdException() {
+            super("ItemId is null");
+        }
+    }
+
+    private static class ItemNotFoundException extends AbstractServiceException {
+        private ItemNotFoundException(final ItemId id) {
+            super("Item with id '" + id + "' not found");
+        }
+    }
+}
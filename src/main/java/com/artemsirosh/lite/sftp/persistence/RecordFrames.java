@@ -0,0 +1,67 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.CRC32C;
+
+/**
+ * Frames records of journal and snapshot files. Frame is record's length,
+ * CRC-32C of record and record itself, so torn or corrupted frame is
+ * detected on read. Zero length frame marks end of records.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class RecordFrames {
+
+    private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    static void write(final DataOutput output, final byte[] record) throws IOException {
+        output.writeInt(record.length);
+        output.writeInt(checksum(record));
+        output.write(record);
+    }
+
+    static void writeEnd(final DataOutput output) throws IOException {
+        output.writeInt(0);
+    }
+
+    /**
+     * Reads next record.
+     *
+     * @return record or {@code null} at the end of records or input
+     * @throws IOException if frame is torn or corrupted
+     */
+    static byte[] read(final DataInput input) throws IOException {
+        final int length;
+        try {
+            length = input.readInt();
+        } catch (EOFException exc) {
+            return null;
+        }
+
+        if (length == 0) {
+            return null;
+        } else if (length < 0 || length > MAX_RECORD_LENGTH) {
+            throw new IOException("Corrupted frame, length: " + length);
+        }
+
+        final int checksum = input.readInt();
+        final byte[] record = new byte[length];
+        input.readFully(record);
+        if (checksum(record) != checksum) {
+            throw new IOException("Corrupted frame, checksum mismatch");
+        }
+
+        return record;
+    }
+
+    private static int checksum(final byte[] record) {
+        final CRC32C crc = new CRC32C();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,63 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Optional;
+
+/**
+ * Result of batch operation for one of its items: either resulting item or
+ * failure which prevented operation on it.
+ *
+ * @param <K> type of key identifying item within batch
+ * @param <T> type of resulting item
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchItemResult<K, T> {
+
+    /**
+     * Key of item within batch, e.g. name or identifier. Cannot be
+     * {@code null}.
+     */
+    @NonNull
+    K key;
+
+    @Nullable
+    T item;
+
+    @Nullable
+    RuntimeException failure;
+
+    public static <K, T> BatchItemResult<K, T> success(@NonNull final K key, @NonNull final T item) {
+        return new BatchItemResult<>(key, item, null);
+    }
+
+    public static <K, T> BatchItemResult<K, T> failure(@NonNull final K key, @NonNull final RuntimeException failure) {
+        return new BatchItemResult<>(key, null, failure);
+    }
+
+    /**
+     * Tells whether operation on item succeeded.
+     */
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    /**
+     * Resulting item, present when operation succeeded.
+     */
+    public Optional<T> getItem() {
+        return Optional.ofNullable(item);
+    }
+
+    /**
+     * Failure, present when operation failed.
+     */
+    public Optional<RuntimeException> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+}
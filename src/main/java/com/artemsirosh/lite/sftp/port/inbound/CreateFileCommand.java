@@ -5,7 +5,9 @@ import com.artemsirosh.lite.sftp.domain.ItemId;
 import lombok.Builder;
 import lombok.Value;
 
+import java.nio.channels.ReadableByteChannel;
 import java.time.Instant;
+import java.util.Optional;
 
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
@@ -37,8 +39,24 @@ public class CreateFileCommand {
     ItemId parentId;
 
     /**
-     * Future file content. Cannot be {@code null}.
+     * Future file content. Cannot be {@code null} unless
+     * {@link #contentChannel} provided.
      */
-    @NonNull
+    @Nullable
     byte[] content;
+
+    /**
+     * Source of future file content. When present content is streamed to
+     * the storage chunk by chunk instead of being held in memory, and
+     * {@link #content} is ignored. Channel isn't closed by the use case.
+     */
+    @Nullable
+    ReadableByteChannel contentChannel;
+
+    /**
+     * Streamed file content source.
+     */
+    public Optional<ReadableByteChannel> getContentChannel() {
+        return Optional.ofNullable(contentChannel);
+    }
 }
@@ -0,0 +1,59 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Batch file creation command. Contains attributes of files created in the
+ * same directory.
+ */
+@Value
+@Builder
+public class CreateFilesCommand {
+
+    /**
+     * Parent {@link Directory} identifier. Cannot be {@code null}.
+     */
+    @NonNull
+    ItemId parentId;
+
+    /**
+     * Attributes of future files, names should be unique.
+     */
+    @Singular
+    List<NewFile> files;
+
+    /**
+     * Attributes of one future file of batch.
+     */
+    @Value
+    public static class NewFile {
+
+        /**
+         * Future file name. Cannot be {@code null}.
+         */
+        @NonNull
+        String name;
+
+        /**
+         * Future file last modification date-time. If absent creation
+         * date-time will be used.
+         */
+        @Nullable
+        Instant lastModified;
+
+        /**
+         * Future file content. Cannot be {@code null}.
+         */
+        @NonNull
+        byte[] content;
+    }
+}
@@ -0,0 +1,22 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import com.artemsirosh.lite.sftp.domain.File;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Use case for creation of many small files at once.
+ */
+public interface CreateFilesUseCase {
+
+    /**
+     * Creates batch of new {@link File}s in one directory. Failure to create
+     * one of files doesn't prevent creation of others.
+     *
+     * @param command attributes of files creation
+     * @return results by file name, in order of command files
+     */
+    @NonNull
+    List<BatchItemResult<String, File>> createFiles(@NonNull final CreateFilesCommand command);
+}
@@ -3,12 +3,14 @@ package com.artemsirosh.lite.sftp.port.inbound;
 import org.springframework.lang.NonNull;
 
 import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AllArgsConstructor;
 import lombok.Value;
 
 /**
  * Contains data for locate data for deletion.
  */
 @Value
+@AllArgsConstructor
 public class DeleteItemCommand {
 
     /**
@@ -16,4 +18,14 @@ public class DeleteItemCommand {
      */
     @NonNull
     ItemId id;
+
+    /**
+     * How item data should be removed. Cannot be {@code null}.
+     */
+    @NonNull
+    DeleteMode mode;
+
+    public DeleteItemCommand(@NonNull final ItemId id) {
+        this(id, DeleteMode.IMMEDIATE);
+    }
 }
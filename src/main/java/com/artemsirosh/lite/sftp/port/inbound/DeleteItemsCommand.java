@@ -0,0 +1,32 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Contains data to locate batch of items for deletion.
+ */
+@Value
+@AllArgsConstructor
+public class DeleteItemsCommand {
+
+    /**
+     * Identifiers of deleting items. Cannot be {@code null}.
+     */
+    @NonNull
+    List<ItemId> ids;
+
+    /**
+     * How items data should be removed. Cannot be {@code null}.
+     */
+    @NonNull
+    DeleteMode mode;
+
+    public DeleteItemsCommand(@NonNull final List<ItemId> ids) {
+        this(ids, DeleteMode.IMMEDIATE);
+    }
+}
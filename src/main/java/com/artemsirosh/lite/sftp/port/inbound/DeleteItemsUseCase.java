@@ -0,0 +1,23 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Use case for deletion of many {@link Item}s at once.
+ */
+public interface DeleteItemsUseCase {
+
+    /**
+     * Deletes batch of {@link Item}s. Failure to delete one of items doesn't
+     * prevent deletion of others.
+     *
+     * @param command contains data to find deleting items
+     * @return results by item identifier, in order of command identifiers
+     */
+    @NonNull
+    List<BatchItemResult<ItemId, Item>> deleteItems(@NonNull final DeleteItemsCommand command);
+}
@@ -0,0 +1,19 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+/**
+ * Defines how data of deleting item is removed.
+ */
+public enum DeleteMode {
+
+    /**
+     * Item data is removed before use case returns. Deletion time depends
+     * on size of item.
+     */
+    IMMEDIATE,
+
+    /**
+     * Item is atomically moved out of sight and its data is removed later
+     * in background. Deletion time doesn't depend on size of item.
+     */
+    DEFERRED
+}
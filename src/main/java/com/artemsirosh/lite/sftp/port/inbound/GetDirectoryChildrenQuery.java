@@ -1,14 +1,20 @@
 package com.artemsirosh.lite.sftp.port.inbound;
 
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AllArgsConstructor;
 import lombok.Value;
 
+import java.util.Optional;
+
 /**
- * Query for directory listing.
+ * Query for directory listing. Optionally asks for a single page of
+ * listing.
  */
 @Value
+@AllArgsConstructor
 public class GetDirectoryChildrenQuery {
 
     /**
@@ -17,4 +23,23 @@ public class GetDirectoryChildrenQuery {
      */
     @NonNull
     ItemId directoryId;
+
+    /**
+     * Maximum number of items in page.
+     */
+    int pageSize;
+
+    @Nullable
+    String cursor;
+
+    public GetDirectoryChildrenQuery(@NonNull final ItemId directoryId) {
+        this(directoryId, 0, null);
+    }
+
+    /**
+     * Cursor returned with previous page, absent for the first page.
+     */
+    public Optional<String> getCursor() {
+        return Optional.ofNullable(cursor);
+    }
 }
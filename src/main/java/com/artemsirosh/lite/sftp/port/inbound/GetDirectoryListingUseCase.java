@@ -1,6 +1,7 @@
 package com.artemsirosh.lite.sftp.port.inbound;
 
 import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
 import org.springframework.lang.NonNull;
 
 /**
@@ -17,4 +18,14 @@ public interface GetDirectoryListingUseCase {
     @NonNull
     DirectoryListing getDirectoryListing(@NonNull final GetDirectoryChildrenQuery query);
 
+    /**
+     * Performs query for a page of directory's children ordered by name.
+     * Page size is limited, page may be smaller than requested one, listing
+     * continues from cursor of returned page.
+     * @param query directory listing attributes with page size and cursor
+     * @return page of directory listing
+     */
+    @NonNull
+    DirectoryListingPage getDirectoryListingPage(@NonNull final GetDirectoryChildrenQuery query);
+
 }
@@ -1,15 +1,21 @@
 package com.artemsirosh.lite.sftp.port.inbound;
 
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.ItemId;
+import lombok.AllArgsConstructor;
 import lombok.Value;
 
+import java.util.Optional;
+
 /**
  * Represnts data needed for {@link File} location for content retrieving.
+ * Optionally limits retrieved content to a range of bytes.
  */
 @Value
+@AllArgsConstructor
 public class GetFileContentQuery {
 
     /**
@@ -17,4 +23,32 @@ public class GetFileContentQuery {
      */
     @NonNull
     ItemId fileId;
+
+    /**
+     * Position of the first byte of requested range. Zero means the
+     * beginning of file.
+     */
+    long offset;
+
+    @Nullable
+    Long length;
+
+    public GetFileContentQuery(@NonNull final ItemId fileId) {
+        this(fileId, 0L, null);
+    }
+
+    /**
+     * Maximum number of bytes to read starting from {@link #offset}. If
+     * absent content read till the end of file.
+     */
+    public Optional<Long> getLength() {
+        return Optional.ofNullable(length);
+    }
+
+    /**
+     * Returns {@code true} when query asks only a part of file content.
+     */
+    public boolean isRanged() {
+        return offset != 0L || length != null;
+    }
 }
@@ -4,16 +4,28 @@ import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
 import org.springframework.lang.NonNull;
 
+import java.nio.channels.FileChannel;
+
 /**
  * Use case for {@link File} content retrieving.
  */
 public interface GetFileContentUseCase {
 
     /**
-     * Returns instance of {@link FileContent}.
+     * Returns instance of {@link FileContent}. When query is ranged, only
+     * requested part of content is read.
      * @param query data for file locating
      */
     @NonNull
     FileContent getFileContent(@NonNull final GetFileContentQuery query);
 
+    /**
+     * Opens lazy, seekable handle of file content. Content is read on demand,
+     * so it can be sent with {@link FileChannel#transferTo} without copying
+     * into heap. Caller must close returned channel.
+     * @param query data for file locating
+     */
+    @NonNull
+    FileChannel openFileContent(@NonNull final GetFileContentQuery query);
+
 }
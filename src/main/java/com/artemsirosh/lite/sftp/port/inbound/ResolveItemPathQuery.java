@@ -0,0 +1,19 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import org.springframework.lang.NonNull;
+
+import lombok.Value;
+
+/**
+ * Query for item addressed by path, like SFTP clients do.
+ */
+@Value
+public class ResolveItemPathQuery {
+
+    /**
+     * Slash separated path of item relative to catalog root, for example
+     * {@code /alpha/bravo/charlie.txt}. Cannot be {@code null}.
+     */
+    @NonNull
+    String path;
+}
@@ -0,0 +1,19 @@
+package com.artemsirosh.lite.sftp.port.inbound;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.springframework.lang.NonNull;
+
+/**
+ * Use case for lookup of {@link Item} by path.
+ */
+public interface ResolveItemPathUseCase {
+
+    /**
+     * Finds {@link Item} by its path.
+     * @param query contains path of item
+     * @return found item
+     */
+    @NonNull
+    Item resolveItemPath(@NonNull final ResolveItemPathQuery query);
+
+}
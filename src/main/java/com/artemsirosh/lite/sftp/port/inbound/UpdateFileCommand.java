@@ -23,6 +23,9 @@ public class UpdateFileCommand {
     @NonNull
     ItemId fileId;
 
+    @Nullable
+    ItemId parentId;
+
     @Nullable
     String name;
 
@@ -32,6 +35,13 @@ public class UpdateFileCommand {
     @Nullable
     byte[] content;
 
+    /**
+     * Identifier of directory file should be moved to.
+     */
+    public Optional<ItemId> getParentId() {
+        return Optional.ofNullable(parentId);
+    }
+
     /**
      * New file's name.
      */
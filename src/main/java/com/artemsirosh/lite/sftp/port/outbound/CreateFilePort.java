@@ -2,8 +2,13 @@ package com.artemsirosh.lite.sftp.port.outbound;
 
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
+import com.artemsirosh.lite.sftp.domain.ItemId;
 import org.springframework.lang.NonNull;
 
+import java.nio.channels.ReadableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Creates a new file with content.
  */
@@ -16,4 +21,36 @@ public interface CreateFilePort {
      * @param content {@link FileContent} model
      */
     void createFile(@NonNull final File file, @NonNull final FileContent content);
+
+    /**
+     * Creates a new file reading its content from given channel until end
+     * of stream. Content is written in fixed-size chunks, so memory usage
+     * doesn't depend on file size. Channel isn't closed by this method.
+     *
+     * @param file {@link File} model
+     * @param content source of file content
+     */
+    void createFileFromChannel(@NonNull final File file, @NonNull final ReadableByteChannel content);
+
+    /**
+     * Creates batch of files. Implementations may write files concurrently
+     * and force them to storage together. Default implementation creates
+     * files one by one.
+     *
+     * @param files {@link File} models with their contents
+     * @return failures by identifiers of files which weren't created
+     */
+    @NonNull
+    default Map<ItemId, RuntimeException> createFiles(@NonNull final Map<File, FileContent> files) {
+        final Map<ItemId, RuntimeException> failures = new HashMap<>();
+        files.forEach((file, content) -> {
+            try {
+                createFile(file, content);
+            } catch (RuntimeException exc) {
+                failures.put(file.getId(), exc);
+            }
+        });
+
+        return failures;
+    }
 }
@@ -2,12 +2,26 @@ package com.artemsirosh.lite.sftp.port.outbound;
 
 import com.artemsirosh.lite.sftp.domain.Directory;
 import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Returns directory listing for particular directory.
  */
 public interface GetDirectoryListingPort {
 
+    /**
+     * Order of items in listing pages.
+     */
+    Comparator<Item> BY_NAME = Comparator.comparing(Item::getName);
+
     /**
      * Returns directory listing.
      * 
@@ -15,4 +29,42 @@ public interface GetDirectoryListingPort {
      * @return {@link DirectoryListing} for given directory
      */
     DirectoryListing getListing(final Directory directory);
+
+    /**
+     * Returns page of directory listing ordered by name. Default
+     * implementation reads full listing for every page and keeps only
+     * {@code limit} items in a heap growing with page, so each page costs
+     * O(n log limit) for directory of n items, and listing whole directory
+     * page by page reads it n / limit times. Implementations holding items
+     * sorted should seek to {@code afterName} instead.
+     *
+     * @param directory {@link Directory} model
+     * @param afterName name after which page starts, {@code null} for
+     *                  the first page
+     * @param limit maximum number of items in page
+     * @return {@link DirectoryListingPage} for given directory
+     */
+    @NonNull
+    default DirectoryListingPage getListingPage(@NonNull final Directory directory, @Nullable final String afterName,
+                                                final int limit) {
+        final long capacity = (long) limit + 1L;
+        final var largestFirst = new PriorityQueue<Item>(BY_NAME.reversed());
+        getListing(directory).getItems().forEach(item -> {
+            if (afterName == null || item.getName().compareTo(afterName) > 0) {
+                largestFirst.add(item);
+                if (largestFirst.size() > capacity) {
+                    largestFirst.poll();
+                }
+            }
+        });
+
+        final boolean hasMore = largestFirst.size() > limit;
+        if (hasMore) {
+            largestFirst.poll();
+        }
+
+        final List<Item> items = new ArrayList<>(largestFirst);
+        items.sort(BY_NAME);
+        return DirectoryListingPage.of(directory, items, hasMore);
+    }
 }
@@ -5,6 +5,8 @@ import org.springframework.lang.NonNull;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
 
+import java.nio.channels.FileChannel;
+
 /**
  * Finds and returns content of the file.
  */
@@ -16,4 +18,28 @@ public interface GetFileContentPort {
      */
     @NonNull
     FileContent getFileContent(@NonNull final File file);
+
+    /**
+     * Returns part of file content. Bytes are read from given position only,
+     * preceding content isn't touched. Range exceeding end of file is
+     * truncated to file size.
+     *
+     * @param file {@link File} model
+     * @param offset position of the first byte to read
+     * @param length maximum number of bytes to read
+     */
+    @NonNull
+    FileContent getFileContent(@NonNull final File file, final long offset, final long length);
+
+    /**
+     * Opens content of the file for reading without loading it into memory.
+     * Returned channel is seekable and allows to move bytes with
+     * {@link FileChannel#transferTo} or {@link FileChannel#map}. Caller
+     * is responsible for closing it.
+     *
+     * @param file {@link File} model
+     * @return read-only channel of file content
+     */
+    @NonNull
+    FileChannel openFileContent(@NonNull final File file);
 }
@@ -0,0 +1,18 @@
+package com.artemsirosh.lite.sftp.port.outbound;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.springframework.lang.NonNull;
+
+/**
+ * Drops cached directory listings which became stale after item change.
+ */
+public interface InvalidateDirectoryListingPort {
+
+    /**
+     * Invalidates listing of item's parent directory and, when item is a
+     * directory, listing of item itself.
+     *
+     * @param item created, changed or deleted {@link Item}
+     */
+    void invalidateListings(@NonNull final Item item);
+}
@@ -0,0 +1,20 @@
+package com.artemsirosh.lite.sftp.port.outbound;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.springframework.lang.NonNull;
+
+/**
+ * Renames item or moves it to another directory without touching its content.
+ */
+public interface MoveItemPort {
+
+    /**
+     * Moves item to location of its new model atomically, content of item
+     * isn't copied.
+     *
+     * @param item   current {@link Item} model
+     * @param target new {@link Item} model with another name or parent
+     * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException if item doesn't exist or target already exists
+     */
+    void moveItem(@NonNull final Item item, @NonNull final Item target);
+}
@@ -3,6 +3,8 @@ package com.artemsirosh.lite.sftp.port.outbound;
 import com.artemsirosh.lite.sftp.domain.Item;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+
 /**
  * Register {@link Item} with internal registry.
  */
@@ -15,4 +17,17 @@ public interface RegisterItemPort {
      * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException if item already registered
      */
     void register(@NonNull final Item item);
+
+    /**
+     * Registers batch of items. Default implementation registers items one
+     * by one, implementations may do it at once.
+     *
+     * @param items {@link Item} models
+     * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException if any item already registered
+     */
+    default void registerAll(@NonNull final Collection<? extends Item> items) {
+        for (final Item item : items) {
+            register(item);
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.artemsirosh.lite.sftp.port.outbound;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.springframework.lang.NonNull;
+
+/**
+ * Replaces {@link Item} registered with internal registry, unless it was
+ * replaced by someone else meanwhile.
+ */
+public interface ReplaceItemPort {
+
+    /**
+     * Atomically replaces registered item by given one, if registered item
+     * still has expected version.
+     *
+     * @param item            new {@link Item} model with the same identifier,
+     *                        usually with version {@code expectedVersion + 1}
+     * @param expectedVersion version of item new one is based on
+     * @return {@code true} if item replaced, {@code false} if registered item
+     * has another version
+     * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException if item not registered
+     */
+    boolean replace(@NonNull final Item item, final long expectedVersion);
+}
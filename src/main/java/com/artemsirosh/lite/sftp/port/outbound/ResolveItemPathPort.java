@@ -0,0 +1,22 @@
+package com.artemsirosh.lite.sftp.port.outbound;
+
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Finds identifier of item by its path.
+ */
+public interface ResolveItemPathPort {
+
+    /**
+     * Resolves path, one name lookup per path element.
+     *
+     * @param path names of items from top level item to resolved one
+     * @return identifier of item or empty if there is no item with such path
+     */
+    @NonNull
+    Optional<ItemId> resolvePath(@NonNull final List<String> path);
+}
@@ -0,0 +1,20 @@
+package com.artemsirosh.lite.sftp.port.outbound;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.springframework.lang.NonNull;
+
+/**
+ * Deletes item lazily: item disappears at once, while its data is removed
+ * in background.
+ */
+public interface TrashItemPort {
+
+    /**
+     * Atomically moves given item to trash and schedules its removal.
+     *
+     * @param item {@link Item} model
+     * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException when
+     *         Item not exists
+     */
+    void trashItem(@NonNull final Item item);
+}
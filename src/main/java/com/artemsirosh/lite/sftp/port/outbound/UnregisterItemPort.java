@@ -3,6 +3,8 @@ package com.artemsirosh.lite.sftp.port.outbound;
 import com.artemsirosh.lite.sftp.domain.ItemId;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+
 /**
  * Cancels registration of item in internal registry.
  */
@@ -10,9 +12,24 @@ public interface UnregisterItemPort {
 
     /**
      * Will cancel {@link com.artemsirosh.lite.sftp.domain.Item} registration.
-     * 
+     * Registries indexing children cancel registration of item's descendants
+     * as well.
+     *
      * @param id {@link com.artemsirosh.lite.sftp.domain.Item} identifier
      * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException when item not registered
      */
     void unregister(@NonNull final ItemId id);
+
+    /**
+     * Cancels registration of batch of items. Default implementation
+     * unregisters items one by one, implementations may do it at once.
+     *
+     * @param ids {@link com.artemsirosh.lite.sftp.domain.Item} identifiers
+     * @throws com.artemsirosh.lite.sftp.errors.AbstractServiceException when any item not registered
+     */
+    default void unregisterAll(@NonNull final Collection<ItemId> ids) {
+        for (final ItemId id : ids) {
+            unregister(id);
+        }
+    }
 }
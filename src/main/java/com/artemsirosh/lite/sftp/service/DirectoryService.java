@@ -2,25 +2,64 @@ package com.artemsirosh.lite.sftp.service;
 
 import com.artemsirosh.lite.sftp.domain.Directory;
 import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
 import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import com.artemsirosh.lite.sftp.port.inbound.BatchItemResult;
 import com.artemsirosh.lite.sftp.port.inbound.CreateDirectoryCommand;
 import com.artemsirosh.lite.sftp.port.inbound.CreateDirectoryUseCase;
 import com.artemsirosh.lite.sftp.port.inbound.DeleteItemCommand;
 import com.artemsirosh.lite.sftp.port.inbound.DeleteItemUseCase;
+import com.artemsirosh.lite.sftp.port.inbound.DeleteItemsCommand;
+import com.artemsirosh.lite.sftp.port.inbound.DeleteItemsUseCase;
+import com.artemsirosh.lite.sftp.port.inbound.DeleteMode;
 import com.artemsirosh.lite.sftp.port.inbound.GetDirectoryChildrenQuery;
 import com.artemsirosh.lite.sftp.port.inbound.GetDirectoryListingUseCase;
+import com.artemsirosh.lite.sftp.port.inbound.ResolveItemPathQuery;
+import com.artemsirosh.lite.sftp.port.inbound.ResolveItemPathUseCase;
 import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ResolveItemPathPort;
 import com.artemsirosh.lite.sftp.port.outbound.CreateDirectoryPort;
 import com.artemsirosh.lite.sftp.port.outbound.DeleteItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
+import com.artemsirosh.lite.sftp.port.outbound.InvalidateDirectoryListingPort;
+import com.artemsirosh.lite.sftp.port.outbound.TrashItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.UnregisterItemPort;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
-public class DirectoryService implements CreateDirectoryUseCase, DeleteItemUseCase, GetDirectoryListingUseCase {
+public class DirectoryService implements CreateDirectoryUseCase, DeleteItemUseCase, DeleteItemsUseCase,
+        GetDirectoryListingUseCase, ResolveItemPathUseCase {
+
+    /**
+     * Largest page of directory listing, larger requested pages are cut.
+     */
+    static final int MAX_PAGE_SIZE = 10_000;
+
+    /**
+     * Number of siblings removed by one task of delete executor.
+     */
+    private static final int DELETE_CHUNK_SIZE = 32;
 
     private final RegisterItemPort registerItemPort;
     private final CreateDirectoryPort createDirectoryPort;
@@ -28,6 +67,16 @@ public class DirectoryService implements CreateDirectoryUseCase, DeleteItemUseCa
     private final GetDirectoryListingPort getDirectoryListingPort;
     private final GetItemByIdPort getItemByIdPort;
     private final UnregisterItemPort unregisterItemPort;
+    private final TrashItemPort trashItemPort;
+    private final InvalidateDirectoryListingPort invalidateDirectoryListingPort;
+    private final ResolveItemPathPort resolveItemPathPort;
+    private final ItemLockManager itemLockManager;
+
+    /**
+     * Runs deletion of batch items, bounded executor keeps large batch from
+     * taking threads of other work.
+     */
+    private final Executor deleteExecutor;
 
     @Override
     @NonNull
@@ -39,8 +88,12 @@ public class DirectoryService implements CreateDirectoryUseCase, DeleteItemUseCa
                 .parent(parent)
                 .build();
 
-        createDirectoryPort.createDirectory(directory);
-        registerItemPort.register(directory);
+        try (ItemLockManager.HeldLocks ignored = itemLockManager.lockDirectory(parent)) {
+            createDirectoryPort.createDirectory(directory);
+            invalidateDirectoryListingPort.invalidateListings(directory);
+            registerItemPort.register(directory);
+        }
+
         return directory;
     }
 
@@ -48,11 +101,149 @@ public class DirectoryService implements CreateDirectoryUseCase, DeleteItemUseCa
     @NonNull
     public Item deleteItem(@NonNull final DeleteItemCommand command) {
         final Item item = getItemByIdPort.getItemById(command.getId());
-        deleteItemPort.deleteItem(item);
-        unregisterItemPort.unregister(item.getId());
+        try (ItemLockManager.HeldLocks ignored = itemLockManager.lockSubtree(item)) {
+            removeItem(item, command.getMode());
+            unregisterItemPort.unregister(item.getId());
+        }
+
         return item;
     }
 
+    /**
+     * Deletes items, skipping ones deleted together with their requested
+     * ancestors. Remaining items are grouped by parent, groups are deleted
+     * in parallel on delete executor, each under lock of its parent, which
+     * excludes changes beneath all of siblings, while siblings are deleted
+     * in parallel chunks. Then all deleted items are unregistered at once,
+     * items which failed to be unregistered are reported as removed from
+     * disk but still registered. Item whose requested ancestor failed to be
+     * deleted may be removed or not, it's reported as such and stays
+     * registered.
+     */
+    @Override
+    @NonNull
+    public List<BatchItemResult<ItemId, Item>> deleteItems(@NonNull final DeleteItemsCommand command) {
+        final Map<ItemId, BatchItemResult<ItemId, Item>> results = new ConcurrentHashMap<>();
+        final Map<ItemId, Item> items = new LinkedHashMap<>();
+        for (final ItemId id : command.getIds()) {
+            if (!items.containsKey(id) && !results.containsKey(id)) {
+                try {
+                    items.put(id, getItemByIdPort.getItemById(id));
+                } catch (RuntimeException exc) {
+                    results.put(id, BatchItemResult.failure(id, exc));
+                }
+            }
+        }
+
+        final Map<Optional<ItemId>, List<Item>> topmostItemsByParent = items.values().stream()
+                .filter(item -> findTopmostAncestor(item, items.keySet()) == null)
+                .collect(Collectors.groupingBy(item -> Optional.ofNullable(item.getParent()).map(Item::getId)));
+        final CompletableFuture<?>[] groups = topmostItemsByParent.values().stream()
+                .map(siblings -> CompletableFuture.runAsync(
+                        () -> removeSiblings(siblings, command.getMode(), results), deleteExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(groups).join();
+
+        final List<ItemId> deleted = new ArrayList<>(items.size());
+        for (final Item item : items.values()) {
+            final Item ancestor = findTopmostAncestor(item, items.keySet());
+            if (ancestor != null) {
+                final BatchItemResult<ItemId, Item> ancestorResult = results.get(ancestor.getId());
+                results.put(item.getId(), ancestorResult.isSuccessful()
+                        ? BatchItemResult.success(item.getId(), item)
+                        : BatchItemResult.failure(item.getId(), new ItemDeletionUnknownException(
+                                item.getId(), ancestor.getId(), ancestorResult.getFailure().orElseThrow())));
+            }
+            if (results.get(item.getId()).isSuccessful()) {
+                deleted.add(item.getId());
+            }
+        }
+
+        try {
+            unregisterItemPort.unregisterAll(deleted);
+        } catch (RuntimeException exc) {
+            deleted.forEach(id -> results.put(id,
+                    BatchItemResult.failure(id, new ItemStillRegisteredException(id, exc))));
+        }
+
+        return command.getIds().stream()
+                .map(results::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes siblings under lock of their parent, held by calling thread
+     * until all siblings are removed. Siblings are split into chunks, which
+     * are taken by helpers run on delete executor and by calling thread
+     * itself, so it never waits for chunk nobody has taken, even when all
+     * executor's threads are busy.
+     */
+    private void removeSiblings(final List<Item> siblings, final DeleteMode mode,
+                                final Map<ItemId, BatchItemResult<ItemId, Item>> results) {
+        try (ItemLockManager.HeldLocks ignored = itemLockManager.lockDirectory(siblings.get(0).getParent())) {
+            final List<List<Item>> chunks = Lists.partition(siblings, DELETE_CHUNK_SIZE);
+            final AtomicInteger nextChunk = new AtomicInteger();
+            final CountDownLatch removedChunks = new CountDownLatch(chunks.size());
+            final Runnable remover = () -> {
+                for (int chunk = nextChunk.getAndIncrement(); chunk < chunks.size();
+                     chunk = nextChunk.getAndIncrement()) {
+                    try {
+                        chunks.get(chunk).forEach(item -> removeSibling(item, mode, results));
+                    } finally {
+                        removedChunks.countDown();
+                    }
+                }
+            };
+            for (int helper = 1; helper < chunks.size(); helper++) {
+                try {
+                    deleteExecutor.execute(remover);
+                } catch (RejectedExecutionException exc) {
+                    break;
+                }
+            }
+
+            remover.run();
+            Uninterruptibles.awaitUninterruptibly(removedChunks);
+        } catch (RuntimeException exc) {
+            siblings.forEach(item -> results.putIfAbsent(item.getId(), BatchItemResult.failure(item.getId(), exc)));
+        }
+    }
+
+    private void removeSibling(final Item item, final DeleteMode mode,
+                               final Map<ItemId, BatchItemResult<ItemId, Item>> results) {
+        try {
+            removeItem(item, mode);
+            results.put(item.getId(), BatchItemResult.success(item.getId(), item));
+        } catch (RuntimeException exc) {
+            results.put(item.getId(), BatchItemResult.failure(item.getId(), exc));
+        }
+    }
+
+    private void removeItem(final Item item, final DeleteMode mode) {
+        if (mode == DeleteMode.DEFERRED) {
+            trashItemPort.trashItem(item);
+        } else {
+            deleteItemPort.deleteItem(item);
+        }
+
+        invalidateDirectoryListingPort.invalidateListings(item);
+    }
+
+    /**
+     * Finds topmost ancestor of item among given ones.
+     */
+    @Nullable
+    private static Item findTopmostAncestor(final Item item, final Set<ItemId> ids) {
+        Item topmost = null;
+        for (Item ancestor = item.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            if (ids.contains(ancestor.getId())) {
+                topmost = ancestor;
+            }
+        }
+
+        return topmost;
+    }
+
     @Override
     @NonNull
     public DirectoryListing getDirectoryListing(@NonNull final GetDirectoryChildrenQuery query) {
@@ -63,4 +254,75 @@ public class DirectoryService implements CreateDirectoryUseCase, DeleteItemUseCa
             throw new ServiceException("Item with id: '" + query.getDirectoryId() + "' isn't directory");
         }
     }
+
+    @Override
+    @NonNull
+    public DirectoryListingPage getDirectoryListingPage(@NonNull final GetDirectoryChildrenQuery query) {
+        if (query.getPageSize() <= 0) {
+            throw new ServiceException("Page size should be positive, but was: " + query.getPageSize());
+        }
+
+        final String afterName;
+        try {
+            afterName = query.getCursor()
+                    .map(DirectoryListingPage::decodeCursor)
+                    .orElse(null);
+        } catch (IllegalArgumentException exc) {
+            throw new ServiceException("Malformed listing cursor: '" + query.getCursor().orElse("") + "'");
+        }
+
+        final Item item = getItemByIdPort.getItemById(query.getDirectoryId());
+        if (item.isDirectory()) {
+            final int pageSize = Math.min(query.getPageSize(), MAX_PAGE_SIZE);
+            return getDirectoryListingPort.getListingPage((Directory) item, afterName, pageSize);
+        } else {
+            throw new ServiceException("Item with id: '" + query.getDirectoryId() + "' isn't directory");
+        }
+    }
+
+    @Override
+    @NonNull
+    public Item resolveItemPath(@NonNull final ResolveItemPathQuery query) {
+        final List<String> path = normalizePath(query.getPath());
+        if (path.isEmpty()) {
+            throw new ServiceException("Path '" + query.getPath() + "' doesn't address any item");
+        }
+
+        final ItemId id = resolveItemPathPort.resolvePath(path)
+                .orElseThrow(() -> new ServiceException("Item with path '" + query.getPath() + "' not found"));
+        return getItemByIdPort.getItemById(id);
+    }
+
+    private static List<String> normalizePath(final String path) {
+        final List<String> names = new ArrayList<>();
+        for (final String name : path.split("/")) {
+            if (name.isEmpty() || name.equals(".")) {
+                continue;
+            }
+
+            if (name.equals("..")) {
+                if (names.isEmpty()) {
+                    throw new ServiceException("Path '" + path + "' points outside of catalog");
+                }
+                names.remove(names.size() - 1);
+            } else {
+                names.add(name);
+            }
+        }
+
+        return names;
+    }
+
+    private static class ItemStillRegisteredException extends AbstractServiceException {
+        private ItemStillRegisteredException(final ItemId id, final RuntimeException cause) {
+            super("Item with id '" + id + "' removed from disk but still registered", cause);
+        }
+    }
+
+    private static class ItemDeletionUnknownException extends AbstractServiceException {
+        private ItemDeletionUnknownException(final ItemId id, final ItemId ancestorId, final Throwable cause) {
+            super("Item with id '" + id + "' may be removed or not, deletion of its ancestor with id '"
+                    + ancestorId + "' failed", cause);
+        }
+    }
 }
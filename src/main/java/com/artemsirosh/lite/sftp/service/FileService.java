@@ -3,13 +3,20 @@ package com.artemsirosh.lite.sftp.service;
 import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.domain.ItemId;
 import com.artemsirosh.lite.sftp.port.outbound.CreateFilePort;
+import com.artemsirosh.lite.sftp.port.outbound.DeleteItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetFileContentPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
+import com.artemsirosh.lite.sftp.port.outbound.InvalidateDirectoryListingPort;
+import com.artemsirosh.lite.sftp.port.outbound.MoveItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ReplaceItemPort;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
 import com.artemsirosh.lite.sftp.port.inbound.CreateFileCommand;
+import com.artemsirosh.lite.sftp.port.inbound.BatchItemResult;
 import com.artemsirosh.lite.sftp.port.inbound.CreateFileUseCase;
+import com.artemsirosh.lite.sftp.port.inbound.CreateFilesCommand;
+import com.artemsirosh.lite.sftp.port.inbound.CreateFilesUseCase;
 import com.artemsirosh.lite.sftp.port.inbound.GetFileContentQuery;
 import com.artemsirosh.lite.sftp.port.inbound.GetFileContentUseCase;
 import com.artemsirosh.lite.sftp.port.inbound.UpdateFileCommand;
@@ -18,14 +25,30 @@ import com.artemsirosh.lite.sftp.port.outbound.UpdateFilePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 @RequiredArgsConstructor
-public class FileService implements CreateFileUseCase, GetFileContentUseCase, UpdateFileUseCase {
+public class FileService implements CreateFileUseCase, CreateFilesUseCase, GetFileContentUseCase, UpdateFileUseCase {
+
+    private static final int MAX_UPDATE_ATTEMPTS = 8;
 
     private final CreateFilePort createFilePort;
     private final GetItemByIdPort getItemByIdPort;
     private final RegisterItemPort registerItemPort;
     private final GetFileContentPort getFileContentPort;
     private final UpdateFilePort updateFilePort;
+    private final InvalidateDirectoryListingPort invalidateDirectoryListingPort;
+    private final ReplaceItemPort replaceItemPort;
+    private final MoveItemPort moveItemPort;
+    private final ItemLockManager itemLockManager;
+    private final DeleteItemPort deleteItemPort;
 
     @Override
     @NonNull
@@ -40,9 +63,19 @@ public class FileService implements CreateFileUseCase, GetFileContentUseCase, Up
                     .modifiedDate(command.getLastModified())
                     .build();
 
-            final var content = new FileContent(command.getContent());
-            createFilePort.createFile(file, content);
-            registerItemPort.register(file);
+            try (ItemLockManager.HeldLocks ignored = itemLockManager.lockDirectory(parentItem)) {
+                if (command.getContentChannel().isPresent()) {
+                    createFilePort.createFileFromChannel(file, command.getContentChannel().get());
+                } else if (command.getContent() != null) {
+                    createFilePort.createFile(file, new FileContent(command.getContent()));
+                } else {
+                    throw new ServiceException("File content not provided");
+                }
+
+                invalidateDirectoryListingPort.invalidateListings(file);
+                registerItemPort.register(file);
+            }
+
             return file;
         } else {
             throw new ServiceException("Parent item should be directory");
@@ -50,40 +83,221 @@ public class FileService implements CreateFileUseCase, GetFileContentUseCase, Up
 
     }
 
+    /**
+     * Creates files resolving parent once, writing them with one port call
+     * and registering created ones with one registry call. When registration
+     * fails, created files are deleted and reported as failed.
+     */
+    @Override
+    @NonNull
+    public List<BatchItemResult<String, File>> createFiles(@NonNull final CreateFilesCommand command) {
+        final Item parentItem = getItemByIdPort.getItemById(command.getParentId());
+        if (!parentItem.isDirectory()) {
+            throw new ServiceException("Parent item should be directory");
+        }
+
+        final Map<String, File> filesByName = new HashMap<>();
+        final Map<File, FileContent> contents = new LinkedHashMap<>();
+        final Map<String, RuntimeException> rejected = new HashMap<>();
+        for (final CreateFilesCommand.NewFile newFile : command.getFiles()) {
+            if (filesByName.containsKey(newFile.getName()) || rejected.containsKey(newFile.getName())) {
+                rejected.put(newFile.getName(), new ServiceException("Duplicate file name: " + newFile.getName()));
+            } else if (newFile.getContent() == null) {
+                rejected.put(newFile.getName(), new ServiceException("File content not provided"));
+            } else {
+                final File file = File.builder()
+                        .id(ItemId.newInstanceUUID())
+                        .name(newFile.getName())
+                        .parent(parentItem)
+                        .modifiedDate(newFile.getLastModified())
+                        .build();
+                filesByName.put(file.getName(), file);
+                contents.put(file, new FileContent(newFile.getContent()));
+            }
+        }
+        filesByName.keySet().removeAll(rejected.keySet());
+        contents.keySet().removeIf(file -> rejected.containsKey(file.getName()));
+
+        final Map<ItemId, RuntimeException> failures = new HashMap<>();
+        try (ItemLockManager.HeldLocks ignored = itemLockManager.lockDirectory(parentItem)) {
+            if (!contents.isEmpty()) {
+                failures.putAll(createFilePort.createFiles(contents));
+            }
+            final List<File> created = contents.keySet().stream()
+                    .filter(file -> !failures.containsKey(file.getId()))
+                    .collect(Collectors.toList());
+            if (!created.isEmpty()) {
+                invalidateDirectoryListingPort.invalidateListings(created.get(0));
+                try {
+                    registerItemPort.registerAll(created);
+                } catch (RuntimeException exc) {
+                    created.forEach(file -> failures.put(file.getId(), deleteUnregisteredFile(file, exc)));
+                    invalidateDirectoryListingPort.invalidateListings(created.get(0));
+                }
+            }
+        }
+
+        final List<BatchItemResult<String, File>> results = new ArrayList<>(command.getFiles().size());
+        for (final CreateFilesCommand.NewFile newFile : command.getFiles()) {
+            final String name = newFile.getName();
+            final File file = filesByName.get(name);
+            if (rejected.containsKey(name)) {
+                results.add(BatchItemResult.failure(name, rejected.get(name)));
+            } else if (failures.containsKey(file.getId())) {
+                results.add(BatchItemResult.failure(name, failures.get(file.getId())));
+            } else {
+                results.add(BatchItemResult.success(name, file));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Deletes file which was created but failed to be registered, so it
+     * doesn't remain on disk unknown to registry. Failure of deletion is
+     * kept as suppressed one of registration failure.
+     */
+    private RuntimeException deleteUnregisteredFile(final File file, final RuntimeException failure) {
+        try {
+            deleteItemPort.deleteItem(file);
+        } catch (RuntimeException exc) {
+            failure.addSuppressed(exc);
+        }
+
+        return failure;
+    }
+
     @Override
     @NonNull
     public FileContent getFileContent(@NonNull final GetFileContentQuery query) {
         final Item file = getItemByIdPort.getItemById(query.getFileId());
         if (!file.isDirectory()) {
+            if (query.isRanged()) {
+                return getFileContentRange((File) file, query);
+            }
             return getFileContentPort.getFileContent((File) file);
         } else {
             throw new ServiceException("Item with id '" + query.getFileId() + "' isn't a file");
         }
     }
 
+    private FileContent getFileContentRange(final File file, final GetFileContentQuery query) {
+        final long length = query.getLength().orElse(Long.MAX_VALUE);
+        if (query.getOffset() < 0L || length < 0L) {
+            throw new ServiceException("Invalid content range, offset: " + query.getOffset() + ", length: " + length);
+        }
+
+        return getFileContentPort.getFileContent(file, query.getOffset(), length);
+    }
+
+    @Override
+    @NonNull
+    public FileChannel openFileContent(@NonNull final GetFileContentQuery query) {
+        final Item file = getItemByIdPort.getItemById(query.getFileId());
+        if (!file.isDirectory()) {
+            return getFileContentPort.openFileContent((File) file);
+        } else {
+            throw new ServiceException("Item with id '" + query.getFileId() + "' isn't a file");
+        }
+    }
+
+    /**
+     * Updates file, registered file is replaced only if nobody replaced it
+     * meanwhile, otherwise update is applied to new state of file again.
+     * File's metadata and content are written only after registered file is
+     * replaced. Renamed or moved file is moved on disk in place, its content
+     * isn't copied, under locks of both file's directories, and it's moved
+     * back when registered file wasn't replaced. Update which doesn't move
+     * file takes no locks.
+     */
     @Override
     @NonNull
     public File updateFile(@NonNull UpdateFileCommand command) {
-        final Item item = getItemByIdPort.getItemById(command.getFileId());
-        if (!item.isDirectory()) {
+        for (int attempt = 1; ; attempt++) {
+            final Item item = getItemByIdPort.getItemById(command.getFileId());
+            if (item.isDirectory()) {
+                throw new ServiceException("Item with id '" + command.getFileId() + "' isn't a file");
+            }
+
             final File existedFile = (File) item;
+            final Item parentItem = command.getParentId().isPresent()
+                    ? getItemByIdPort.getItemById(command.getParentId().get())
+                    : existedFile.getParent();
+            if (parentItem != null && !parentItem.isDirectory()) {
+                throw new ServiceException("Parent item should be directory");
+            }
+
             final var updatedFile = File.builder()
                     .id(existedFile.getId())
-                    .parent(existedFile.getParent())
+                    .parent(parentItem)
                     .modifiedDate(command.getLastModified().orElse(existedFile.getModifiedDate()))
                     .name(command.getName().orElse(existedFile.getName()))
+                    .version(existedFile.getVersion() + 1)
                     .build();
+            final boolean moved = !updatedFile.getName().equals(existedFile.getName())
+                    || !Objects.equals(idOf(parentItem), idOf(existedFile.getParent()));
 
-            updateFilePort.updateFile(updatedFile);
-            if (command.getContent().isPresent()) {
-                updateFilePort.updateFileContent(new FileContent(command.getContent().get()));
+            final boolean replaced = moved
+                    ? moveAndReplace(existedFile, updatedFile)
+                    : replaceItemPort.replace(updatedFile, existedFile.getVersion());
+            if (replaced) {
+                updateFilePort.updateFile(updatedFile);
+                if (command.getContent().isPresent()) {
+                    updateFilePort.updateFileContent(new FileContent(command.getContent().get()));
+                }
+
+                if (moved) {
+                    invalidateDirectoryListingPort.invalidateListings(existedFile);
+                }
+                invalidateDirectoryListingPort.invalidateListings(updatedFile);
+                return updatedFile;
             }
 
-            registerItemPort.register(updatedFile);
-            return updatedFile;
+            if (attempt == MAX_UPDATE_ATTEMPTS) {
+                throw new ServiceException("File with id '" + command.getFileId() + "' was concurrently modified, "
+                        + "update failed after " + attempt + " attempts");
+            }
+        }
+    }
 
-        } else {
-            throw new ServiceException("Item with id '" + command.getFileId() + "' isn't a file");
+    /**
+     * Moves file on disk and replaces registered file, move is undone when
+     * registered file wasn't replaced. Failure to undo move after failed
+     * replacement is suppressed by replacement's failure.
+     *
+     * @return {@code true} if registered file replaced
+     */
+    private boolean moveAndReplace(final File existedFile, final File updatedFile) {
+        try (ItemLockManager.HeldLocks ignored =
+                     itemLockManager.lockDirectories(existedFile.getParent(), updatedFile.getParent())) {
+            moveItemPort.moveItem(existedFile, updatedFile);
+            final boolean replaced;
+            try {
+                replaced = replaceItemPort.replace(updatedFile, existedFile.getVersion());
+            } catch (RuntimeException exc) {
+                try {
+                    moveBack(existedFile, updatedFile);
+                } catch (RuntimeException undoExc) {
+                    exc.addSuppressed(undoExc);
+                }
+                throw exc;
+            }
+
+            if (!replaced) {
+                moveBack(existedFile, updatedFile);
+            }
+            return replaced;
         }
     }
+
+    private void moveBack(final File existedFile, final File updatedFile) {
+        moveItemPort.moveItem(updatedFile, existedFile);
+        invalidateDirectoryListingPort.invalidateListings(existedFile);
+        invalidateDirectoryListingPort.invalidateListings(updatedFile);
+    }
+
+    private static ItemId idOf(final Item item) {
+        return item != null ? item.getId() : null;
+    }
 }
@@ -0,0 +1,135 @@
+package com.artemsirosh.lite.sftp.service;
+
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Hierarchical locks of catalog items, so changes of disk and of registry
+ * made by one operation are atomic for other operations. Operation locks
+ * directory it changes exclusively and all its ancestors shared: operations
+ * in different directories don't contend, while subtree deletion excludes
+ * any change beneath deleted item.
+ * <p>
+ * Locks are striped by item identifier, all locks of operation are taken in
+ * stripe order, so operations can't deadlock.
+ */
+public class ItemLockManager {
+
+    private static final Object ROOT = new Object();
+
+    private final Striped<ReadWriteLock> locks;
+
+    public ItemLockManager(final int stripes) {
+        this.locks = Striped.readWriteLock(stripes);
+    }
+
+    /**
+     * Locks directory for change of its children.
+     *
+     * @param directory directory or {@code null} for root
+     * @return held locks, must be closed
+     */
+    @NonNull
+    public HeldLocks lockDirectory(@Nullable final Item directory) {
+        return lock(List.of(keyOf(directory)), directory != null ? directory.getParent() : null);
+    }
+
+    /**
+     * Locks two directories for change of their children, e.g. for move of
+     * item from one to another.
+     *
+     * @param first  directory or {@code null} for root
+     * @param second directory or {@code null} for root
+     * @return held locks, must be closed
+     */
+    @NonNull
+    public HeldLocks lockDirectories(@Nullable final Item first, @Nullable final Item second) {
+        return lock(Arrays.asList(keyOf(first), keyOf(second)),
+                first != null ? first.getParent() : null,
+                second != null ? second.getParent() : null);
+    }
+
+    /**
+     * Locks item with all its subtree and its parent directory, e.g. for
+     * item deletion.
+     *
+     * @return held locks, must be closed
+     */
+    @NonNull
+    public HeldLocks lockSubtree(@NonNull final Item item) {
+        return lock(Arrays.asList(keyOf(item), keyOf(item.getParent())),
+                item.getParent() != null ? item.getParent().getParent() : null);
+    }
+
+    /**
+     * Locks given keys exclusively, and ancestors starting from given ones
+     * together with root shared.
+     */
+    private HeldLocks lock(final List<Object> exclusiveKeys, final Item... firstAncestors) {
+        final List<Object> keys = new ArrayList<>(exclusiveKeys);
+        for (final Item firstAncestor : firstAncestors) {
+            for (Item ancestor = firstAncestor; ancestor != null; ancestor = ancestor.getParent()) {
+                keys.add(keyOf(ancestor));
+            }
+        }
+        keys.add(ROOT);
+
+        final Set<ReadWriteLock> exclusive = Sets.newIdentityHashSet();
+        for (final Object key : exclusiveKeys) {
+            exclusive.add(locks.get(key));
+        }
+
+        final Deque<Lock> held = new ArrayDeque<>(keys.size());
+        ReadWriteLock previous = null;
+        try {
+            for (final ReadWriteLock stripe : locks.bulkGet(keys)) {
+                if (stripe != previous) {
+                    final Lock lock = exclusive.contains(stripe) ? stripe.writeLock() : stripe.readLock();
+                    lock.lock();
+                    held.push(lock);
+                    previous = stripe;
+                }
+            }
+        } catch (RuntimeException exc) {
+            new HeldLocks(held).close();
+            throw exc;
+        }
+
+        return new HeldLocks(held);
+    }
+
+    private static Object keyOf(@Nullable final Item item) {
+        return item != null ? item.getId() : ROOT;
+    }
+
+    /**
+     * Locks held by operation, released in reverse order.
+     */
+    public static class HeldLocks implements AutoCloseable {
+
+        private final Deque<Lock> locks;
+
+        private HeldLocks(final Deque<Lock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            while (!locks.isEmpty()) {
+                locks.pop().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.artemsirosh.lite.sftp.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectoryChildrenTest {
+
+    private static final Directory PARENT = Directory.builder().name("parent").build();
+
+    private static final Directory ALPHA_DIR = Directory.builder().name("alpha").parent(PARENT).build();
+
+    private static final File BRAVO_FILE = File.builder().name("bravo").parent(PARENT).build();
+
+    private static final File CHARLIE_FILE = File.builder()
+            .id(ItemId.of("parent", "charlie"))
+            .name("charlie")
+            .parent(PARENT)
+            .build();
+
+    @Test
+    @DisplayName("Should keep children ordered by name")
+    void test_00() {
+        final var directory = Directory.builder()
+                .name("parent")
+                .addItem(CHARLIE_FILE)
+                .addItem(ALPHA_DIR)
+                .addItem(BRAVO_FILE)
+                .build();
+
+        assertThat(directory.getChildren())
+                .extracting(Item::getName)
+                .containsExactly("alpha", "bravo", "charlie");
+        assertThat(directory.getChildren())
+                .extracting(Item::getId)
+                .containsExactly(ALPHA_DIR.getId(), BRAVO_FILE.getId(), CHARLIE_FILE.getId());
+        assertThat(directory.getChildren())
+                .extracting(Item::isDirectory)
+                .containsExactly(true, false, false);
+    }
+
+    @Test
+    @DisplayName("Should find child by name")
+    void test_01() {
+        final var children = DirectoryChildren.of(List.of(ALPHA_DIR, BRAVO_FILE, CHARLIE_FILE));
+
+        assertThat(children.find("bravo"))
+                .hasValueSatisfying(child -> assertThat(child.asFile()).contains(BRAVO_FILE));
+        assertThat(children.find("alpha"))
+                .hasValueSatisfying(child -> assertThat(child.asDirectory()).contains(ALPHA_DIR));
+        assertThat(children.find("delta")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep first of children with same name")
+    void test_02() {
+        final var duplicate = File.builder().name("bravo").parent(PARENT).build();
+        final var children = DirectoryChildren.of(List.of(BRAVO_FILE, duplicate));
+
+        assertThat(children).hasSize(1);
+        assertThat(children.find("bravo").flatMap(Directory.ChildItem::asFile)).contains(BRAVO_FILE);
+    }
+
+    @Test
+    @DisplayName("Should load lazy children on demand")
+    void test_03() {
+        final Map<ItemId, Item> registry = List.of(ALPHA_DIR, BRAVO_FILE, CHARLIE_FILE).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        final List<ItemId> loaded = new ArrayList<>();
+        final var children = DirectoryChildren.lazy(registry.values(), id -> {
+            loaded.add(id);
+            return registry.get(id);
+        });
+
+        assertThat(children).extracting(Item::getName).containsExactly("alpha", "bravo", "charlie");
+        assertThat(loaded).isEmpty();
+
+        assertThat(children.find("charlie").flatMap(Directory.ChildItem::asFile)).contains(CHARLIE_FILE);
+        assertThat(children.find("bravo").map(Item::calculatePath)).contains(List.of("parent"));
+        assertThat(loaded).containsExactly(CHARLIE_FILE.getId(), BRAVO_FILE.getId());
+    }
+
+    @Test
+    @DisplayName("Should create lazy children from names, ids and flags")
+    void test_04() {
+        final Map<ItemId, Item> registry = List.of(ALPHA_DIR, BRAVO_FILE, CHARLIE_FILE).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        final var directories = new BitSet();
+        directories.set(1);
+        final var children = DirectoryChildren.lazy(
+                List.of("charlie", "alpha", "bravo", "alpha"),
+                List.of(CHARLIE_FILE.getId(), ALPHA_DIR.getId(), BRAVO_FILE.getId(), ItemId.newInstanceUUID()),
+                directories,
+                registry::get
+        );
+
+        assertThat(children).extracting(Item::getName).containsExactly("alpha", "bravo", "charlie");
+        assertThat(children).extracting(Item::isDirectory).containsExactly(true, false, false);
+        assertThat(children.find("alpha").flatMap(Directory.ChildItem::asDirectory)).contains(ALPHA_DIR);
+        assertThat(children.find("charlie").flatMap(Directory.ChildItem::asFile)).contains(CHARLIE_FILE);
+    }
+}
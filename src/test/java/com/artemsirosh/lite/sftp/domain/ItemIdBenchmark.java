@@ -0,0 +1,78 @@
+package com.artemsirosh.lite.sftp.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares compact UUID identifiers with path identifiers of the same
+ * length, which is how every identifier was kept before. Measures
+ * creation, hashing of fresh identifier and lookup in
+ * {@link ConcurrentHashMap}. Run with {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemIdBenchmark {
+
+    private static final int ID_COUNT = 100_000;
+
+    @Param({"compact", "path"})
+    String form;
+
+    private String[] values;
+    private ItemId[] lookupIds;
+    private Map<ItemId, Boolean> ids;
+
+    @Setup
+    public void setUp() {
+        values = new String[ID_COUNT];
+        lookupIds = new ItemId[ID_COUNT];
+        ids = new ConcurrentHashMap<>();
+        for (int i = 0; i < ID_COUNT; i++) {
+            final String uuid = UUID.randomUUID().toString();
+            values[i] = form.equals("compact") ? uuid : uuid.toUpperCase();
+            ids.put(ItemId.fromString(values[i]), Boolean.TRUE);
+            lookupIds[i] = ItemId.fromString(values[i]);
+        }
+    }
+
+    @Benchmark
+    public ItemId create() {
+        return ItemId.fromString(values[ThreadLocalRandom.current().nextInt(ID_COUNT)]);
+    }
+
+    @Benchmark
+    public int createAndHash() {
+        return ItemId.fromString(values[ThreadLocalRandom.current().nextInt(ID_COUNT)]).hashCode();
+    }
+
+    @Benchmark
+    public Boolean lookup() {
+        return ids.get(lookupIds[ThreadLocalRandom.current().nextInt(ID_COUNT)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ItemIdBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,2 +1,74 @@
-package com.artemsirosh.lite.sftp.domain;public class ItemIdTest {
+package com.artemsirosh.lite.sftp.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemIdTest {
+
+    private static final UUID ALPHA_UUID = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+
+    @Test
+    @DisplayName("Should create compact ItemId from UUID string")
+    void test_00() {
+        final ItemId actual = ItemId.fromString(ALPHA_UUID.toString());
+
+        assertThat(actual.asUUID()).contains(ALPHA_UUID);
+        assertThat(actual).isEqualTo(ItemId.of(ALPHA_UUID));
+        assertThat(actual).hasSameHashCodeAs(ItemId.of(ALPHA_UUID));
+    }
+
+    @Test
+    @DisplayName("Should expose compact ItemId as single element path")
+    void test_01() {
+        final ItemId actual = ItemId.of(ALPHA_UUID);
+
+        assertThat(actual.getPath()).containsExactly(ALPHA_UUID.toString());
+        assertThat(ItemId.of(actual.getPath())).isEqualTo(actual);
+    }
+
+    @Test
+    @DisplayName("Should create compact ItemId from Base64 string holding UUID")
+    void test_02() {
+        final String encoded = Base64.getUrlEncoder()
+                .encodeToString(ALPHA_UUID.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertThat(ItemId.fromBase64String(encoded)).isEqualTo(ItemId.of(ALPHA_UUID));
+    }
+
+    @Test
+    @DisplayName("Should keep path form for values which aren't canonical UUID")
+    void test_03() {
+        final ItemId upperCase = ItemId.fromString(ALPHA_UUID.toString().toUpperCase());
+
+        assertThat(upperCase.asUUID()).isEmpty();
+        assertThat(upperCase).isNotEqualTo(ItemId.of(ALPHA_UUID));
+        assertThat(ItemId.fromString("alpha").asUUID()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should compare path ItemIds by path elements")
+    void test_04() {
+        final ItemId expected = ItemId.of("alpha", "bravo");
+
+        assertThat(ItemId.of(List.<CharSequence>of(new StringBuilder("alpha"), "bravo")))
+                .isEqualTo(expected)
+                .hasSameHashCodeAs(expected);
+        assertThat(ItemId.of("alpha", "charlie")).isNotEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should generate distinct compact ItemIds")
+    void test_05() {
+        final ItemId first = ItemId.newInstanceUUID();
+
+        assertThat(first.asUUID()).isPresent();
+        assertThat(first).isNotEqualTo(ItemId.newInstanceUUID());
+    }
 }
@@ -59,4 +59,35 @@ class ItemTest {
                 .isEmpty();
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should compute path of item once")
+    void test_01() {
+        final var alpha = Directory.builder().name("alpha").build();
+        final var bravo = Directory.builder().name("bravo").parent(alpha).build();
+        final var charlie = File.builder().name("charlie").parent(bravo).build();
+
+        assertThat(charlie.calculatePath())
+                .containsExactly("alpha", "bravo")
+                .isSameAs(charlie.calculatePath());
+        assertThat(bravo.calculatePath())
+                .describedAs("Parent path should be reused")
+                .isSameAs(bravo.calculatePath());
+    }
+
+    @Test
+    @DisplayName("Should calculate path of renamed directory children anew")
+    void test_02() {
+        final var alpha = Directory.builder().name("alpha").build();
+        final var bravo = Directory.builder().name("bravo").parent(alpha).build();
+        final var charlie = File.builder().name("charlie").parent(bravo).build();
+        charlie.calculatePath();
+
+        final var renamed = Directory.builder().id(alpha.getId()).name("delta").build();
+        final var moved = Directory.builder().id(bravo.getId()).name("bravo").parent(renamed).build();
+        final var relinked = File.builder().id(charlie.getId()).name("charlie").parent(moved).build();
+
+        assertThat(relinked.calculatePath()).containsExactly("delta", "bravo");
+        assertThat(charlie.calculatePath()).containsExactly("alpha", "bravo");
+    }
+}
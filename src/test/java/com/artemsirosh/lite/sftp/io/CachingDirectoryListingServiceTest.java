@@ -0,0 +1,161 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingDirectoryListingServiceTest {
+
+    private static final long WATCH_TIMEOUT_MILLIS = 30_000L;
+
+    private static final Directory ALPHA = Directory.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("alpha")
+            .build();
+
+    private static final File BRAVO_THE_FILE = File.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("bravo")
+            .parent(ALPHA)
+            .build();
+
+    @TempDir
+    Path rootDirectory;
+
+    private CachingDirectoryListingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(rootDirectory.resolve("alpha").resolve("charlie"));
+        final LocalFileSystemService localFileSystemService = new LocalFileSystemService(rootDirectory);
+        localFileSystemService.init();
+        service = new CachingDirectoryListingService(localFileSystemService, LocalFileSystemSettings.DEFAULT);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated listing from memory")
+    void test_00() {
+        final Set<Item> first = service.getListing(ALPHA).getItems();
+        final Set<Item> second = service.getListing(ALPHA).getItems();
+
+        assertThat(second)
+                .isSameAs(first)
+                .extracting(Item::getName)
+                .containsExactly("charlie");
+    }
+
+    @Test
+    @DisplayName("Should load listing again when it's invalidated by application")
+    void test_01() throws IOException {
+        final Set<Item> cached = service.getListing(ALPHA).getItems();
+        Files.createFile(rootDirectory.resolve("alpha").resolve(BRAVO_THE_FILE.getName()));
+
+        service.invalidateListings(BRAVO_THE_FILE);
+
+        assertThat(service.getListing(ALPHA).getItems())
+                .isNotSameAs(cached)
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("bravo", "charlie");
+    }
+
+    @Test
+    @DisplayName("Should drop cached listing when directory changed outside of application")
+    void test_02() throws Exception {
+        final Set<Item> cached = service.getListing(ALPHA).getItems();
+        Files.createFile(rootDirectory.resolve("alpha").resolve("delta"));
+
+        final long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+        while (service.getListing(ALPHA).getItems() == cached && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+
+        assertThat(service.getListing(ALPHA).getItems())
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("charlie", "delta");
+    }
+
+    @Test
+    @DisplayName("Should return pages of cached listing ordered by name")
+    void test_03() throws IOException {
+        for (final String name : new String[]{"echo", "delta", "foxtrot"}) {
+            Files.createFile(rootDirectory.resolve("alpha").resolve(name));
+        }
+
+        final DirectoryListingPage first = service.getListingPage(ALPHA, null, 2);
+        assertThat(first.getItems())
+                .extracting(Item::getName)
+                .containsExactly("charlie", "delta");
+
+        final DirectoryListingPage second = service.getListingPage(
+                ALPHA, DirectoryListingPage.decodeCursor(first.getNextCursor().orElseThrow()), 2
+        );
+        assertThat(second.getItems())
+                .extracting(Item::getName)
+                .containsExactly("echo", "foxtrot");
+        assertThat(second.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not cache listing invalidated while it was loading")
+    void test_04() throws IOException {
+        final AtomicReference<CachingDirectoryListingService> racing = new AtomicReference<>();
+        final AtomicBoolean raced = new AtomicBoolean();
+        final LocalFileSystemService localFileSystemService = new LocalFileSystemService(rootDirectory) {
+            @Override
+            public DirectoryListing getListing(final Directory directory) {
+                final DirectoryListing listing = super.getListing(directory);
+                if (raced.compareAndSet(false, true)) {
+                    createFile(rootDirectory.resolve("alpha").resolve(BRAVO_THE_FILE.getName()));
+                    racing.get().invalidateListings(BRAVO_THE_FILE);
+                }
+                return listing;
+            }
+        };
+        localFileSystemService.init();
+        racing.set(new CachingDirectoryListingService(localFileSystemService, LocalFileSystemSettings.DEFAULT));
+
+        try {
+            assertThat(racing.get().getListing(ALPHA).getItems())
+                    .extracting(Item::getName)
+                    .containsExactly("charlie");
+            assertThat(racing.get().getListing(ALPHA).getItems())
+                    .describedAs("Listing loaded before invalidation should not be served")
+                    .extracting(Item::getName)
+                    .containsExactlyInAnyOrder("bravo", "charlie");
+        } finally {
+            racing.get().stop();
+        }
+    }
+
+    private static void createFile(final Path path) {
+        try {
+            Files.createFile(path);
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+    }
+}
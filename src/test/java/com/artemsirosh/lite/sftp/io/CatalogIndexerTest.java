@@ -0,0 +1,129 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CatalogIndexerTest {
+
+    private static final long INDEX_TIMEOUT_SECONDS = 30L;
+
+    @TempDir
+    Path catalog;
+
+    private final Map<ItemId, Item> registry = new ConcurrentHashMap<>();
+    private final RegisterItemPort registerItemPort = item -> registry.put(item.getId(), item);
+
+    private CatalogIndexer indexer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final Path charlie = Files.createDirectories(catalog.resolve("alpha").resolve("bravo").resolve("charlie"));
+        Files.createFile(charlie.resolve("delta.txt"));
+        Files.createFile(catalog.resolve("echo.txt"));
+        Files.createDirectories(catalog.resolve(LocalFileSystemService.TRASH_DIRECTORY_NAME).resolve("foxtrot"));
+        Files.createFile(catalog.resolve("alpha").resolve(
+                LocalFileSystemService.TEMPORARY_FILE_PREFIX + "golf" + LocalFileSystemService.TEMPORARY_FILE_SUFFIX
+        ));
+
+        indexer = new CatalogIndexer(catalog, registerItemPort, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexer.stop();
+    }
+
+    @Test
+    @DisplayName("Should register top level items before returning")
+    void test_00() {
+        indexer.index();
+
+        assertThat(registry.values())
+                .filteredOn(item -> item.getParent() == null)
+                .extracting(Item::getName, Item::isDirectory)
+                .containsExactlyInAnyOrder(
+                        tuple("alpha", true),
+                        tuple("echo.txt", false)
+                );
+    }
+
+    @Test
+    @DisplayName("Should register whole catalog with parent links")
+    void test_01() throws Exception {
+        final IndexProgress progress = indexer.index().get(INDEX_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(progress.getDirectoryCount()).isEqualTo(3L);
+        assertThat(progress.getFileCount()).isEqualTo(2L);
+        assertThat(progress.getFailedCount()).isZero();
+        assertThat(registry).hasSize(5);
+
+        final Item delta = findByName("delta.txt").orElseThrow();
+        assertThat(delta.calculatePath()).containsExactly("alpha", "bravo", "charlie");
+        assertThat(registry.get(delta.getParent().getId())).isSameAs(delta.getParent());
+    }
+
+    @Test
+    @DisplayName("Should skip trash directory and temporary files")
+    void test_02() throws Exception {
+        indexer.index().get(INDEX_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(findByName(LocalFileSystemService.TRASH_DIRECTORY_NAME)).isEmpty();
+        assertThat(findByName("foxtrot")).isEmpty();
+        assertThat(registry.values())
+                .noneMatch(item -> item.getName().startsWith(LocalFileSystemService.TEMPORARY_FILE_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Should register items with the same identifiers on every indexing")
+    void test_03() throws Exception {
+        indexer.index().get(INDEX_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        final Set<ItemId> firstIds = Set.copyOf(registry.keySet());
+        registry.clear();
+
+        final CatalogIndexer restarted = new CatalogIndexer(catalog, registerItemPort, 2);
+        restarted.index().get(INDEX_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(registry.keySet()).containsExactlyInAnyOrderElementsOf(firstIds);
+    }
+
+    @Test
+    @DisplayName("Should register item created by service with its identifier")
+    void test_04() throws Exception {
+        final Directory hotel = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("hotel")
+                .build();
+        final LocalFileSystemService service = new LocalFileSystemService(catalog);
+        service.init();
+        service.createDirectory(hotel);
+
+        indexer.index().get(INDEX_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(findByName("hotel")).map(Item::getId).contains(hotel.getId());
+    }
+
+    private Optional<Item> findByName(final String name) {
+        return registry.values().stream()
+                .filter(item -> item.getName().equals(name))
+                .findFirst();
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -114,4 +115,33 @@ class CreateDirectoryPortTest extends LocalFileSystemItemPortTestSuite {
         Assertions.assertThatCode(() -> getCreateDirectoryPort().createDirectory(newDirectory))
                 .isInstanceOf(AbstractServiceException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should fail directory creation when cached parent directory was removed externally")
+    void test_06() throws IOException {
+        final Path alphaPath = createDirectory(ALPHA);
+        final var bravoDirectory = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("bravo")
+                .parent(ALPHA)
+                .build();
+
+        getCreateDirectoryPort().createDirectory(bravoDirectory);
+        Files.delete(alphaPath.resolve(bravoDirectory.getName()));
+        Files.delete(alphaPath);
+
+        final var charlieDirectory = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("charlie")
+                .parent(ALPHA)
+                .build();
+
+        Assertions.assertThatCode(() -> getCreateDirectoryPort().createDirectory(charlieDirectory))
+                .describedAs("Should fail with service exception")
+                .isInstanceOf(AbstractServiceException.class);
+
+        Assertions.assertThatCode(() -> getCreateDirectoryPort().createDirectory(charlieDirectory))
+                .describedAs("Should fail with service exception when parent checked again")
+                .isInstanceOf(AbstractServiceException.class);
+    }
+}
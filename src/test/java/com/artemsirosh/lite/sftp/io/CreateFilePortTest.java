@@ -3,14 +3,33 @@ package com.artemsirosh.lite.sftp.io;
 import com.artemsirosh.lite.sftp.domain.Directory;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
+import com.artemsirosh.lite.sftp.domain.ItemId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -96,4 +115,171 @@ class CreateFilePortTest extends LocalFileSystemItemPortTestSuite {
                 .exists();
     }
 
+    @Test
+    @DisplayName("Should create a file with expected content when content streamed from channel")
+    void test_05() throws IOException {
+        final byte[] content = new byte[3 * 64 * 1024 + 17];
+        new Random(42L).nextBytes(content);
+
+        final Path parentPath = createDirectory(ALPHA);
+        final var channel = Channels.newChannel(new ByteArrayInputStream(content));
+        assertThatCode(() -> getCreateFilePort().createFileFromChannel(CHARLIE_THE_FILE, channel))
+                .describedAs("Should create a file w/o failures")
+                .doesNotThrowAnyException();
+
+        assertThat(parentPath.resolve(CHARLIE_THE_FILE.getName()))
+                .describedAs("File should has expected content")
+                .hasBinaryContent(content);
+    }
+
+    @Test
+    @DisplayName("Should fail streamed file creation when file already exists")
+    void test_06() throws IOException {
+        final Path filePath = createFile(CHARLIE_THE_FILE);
+        final var channel = Channels.newChannel(new ByteArrayInputStream(CONTENT.getContent()));
+        assertThatCode(() -> getCreateFilePort().createFileFromChannel(CHARLIE_THE_FILE, channel))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCauseInstanceOf(FileAlreadyExistsException.class);
+
+        assertThat(filePath)
+                .describedAs("Existing file should be kept intact")
+                .isEmptyFile();
+
+        try (Stream<Path> entries = Files.list(filePath.getParent())) {
+            assertThat(entries)
+                    .describedAs("No temporary files should remain")
+                    .containsExactly(filePath);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityPolicy.class)
+    @DisplayName("Should create a file with expected content and no temporary files with any durability policy")
+    void test_07(final DurabilityPolicy policy) throws IOException {
+        initialize(rootDir, LocalFileSystemSettings.builder().durabilityPolicy(policy).build());
+        final Path parentPath = createDirectory(ALPHA);
+
+        assertThatCode(() -> getCreateFilePort().createFile(CHARLIE_THE_FILE, CONTENT))
+                .describedAs("Should create a file w/o failures")
+                .doesNotThrowAnyException();
+
+        assertThat(parentPath.resolve(CHARLIE_THE_FILE.getName()))
+                .describedAs("File should has expected content")
+                .hasBinaryContent(CONTENT.getContent());
+
+        try (Stream<Path> entries = Files.list(parentPath)) {
+            assertThat(entries)
+                    .describedAs("Only created file should remain")
+                    .containsExactly(parentPath.resolve(CHARLIE_THE_FILE.getName()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should create all files written concurrently when group commit used")
+    void test_08() throws Exception {
+        initialize(rootDir, LocalFileSystemSettings.builder().durabilityPolicy(DurabilityPolicy.GROUP_COMMIT).build());
+        final Path parentPath = createDirectory(ALPHA);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int index = 0; index < 32; index++) {
+                final File file = File.builder()
+                        .name("file-" + index)
+                        .parent(ALPHA)
+                        .build();
+                results.add(executor.submit(() -> getCreateFilePort().createFile(file, CONTENT)));
+            }
+
+            for (final Future<?> result : results) {
+                result.get(10L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Stream<Path> entries = Files.list(parentPath)) {
+            assertThat(entries)
+                    .describedAs("All files should be created")
+                    .hasSize(32)
+                    .allSatisfy(path -> assertThat(path).hasBinaryContent(CONTENT.getContent()));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityPolicy.class)
+    @DisplayName("Should create batch of files with expected content and no temporary files with any durability policy")
+    void test_09(final DurabilityPolicy policy) throws IOException {
+        initialize(rootDir, LocalFileSystemSettings.builder().durabilityPolicy(policy).writeParallelism(4).build());
+        final Path parentPath = createDirectory(ALPHA);
+        final Map<File, FileContent> files = new LinkedHashMap<>();
+        for (int index = 0; index < 64; index++) {
+            files.put(File.builder().name("file-" + index).parent(ALPHA).build(), CONTENT);
+        }
+
+        final Map<ItemId, RuntimeException> failures = getCreateFilePort().createFiles(files);
+
+        assertThat(failures).isEmpty();
+        try (Stream<Path> entries = Files.list(parentPath)) {
+            assertThat(entries)
+                    .describedAs("Only created files should remain")
+                    .hasSize(64)
+                    .allSatisfy(path -> assertThat(path).hasBinaryContent(CONTENT.getContent()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report file of batch which already exists and create others")
+    void test_10() throws IOException {
+        final Path parentPath = createFile(CHARLIE_THE_FILE).getParent();
+        final File delta = File.builder().name("delta").parent(ALPHA).build();
+        final Map<File, FileContent> files = new LinkedHashMap<>();
+        files.put(CHARLIE_THE_FILE, new FileContent(new byte[]{1}));
+        files.put(delta, CONTENT);
+
+        final Map<ItemId, RuntimeException> failures = getCreateFilePort().createFiles(files);
+
+        assertThat(failures).containsOnlyKeys(CHARLIE_THE_FILE.getId());
+        assertThat(parentPath.resolve("delta")).hasBinaryContent(CONTENT.getContent());
+    }
+
+    @Test
+    @DisplayName("Should not replace file created while group commit of the same file was pending")
+    void test_11() throws Exception {
+        initialize(rootDir, LocalFileSystemSettings.builder()
+                .durabilityPolicy(DurabilityPolicy.GROUP_COMMIT)
+                .groupCommitInterval(Duration.ofSeconds(1L))
+                .build());
+        final Path parentPath = createDirectory(ALPHA);
+        final Path filePath = parentPath.resolve(CHARLIE_THE_FILE.getName());
+        final byte[] concurrentContent = new byte[]{1, 2, 3};
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> result = executor.submit(() -> getCreateFilePort().createFile(CHARLIE_THE_FILE, CONTENT));
+            while (!hasTemporaryFile(parentPath)) {
+                Thread.sleep(10L);
+            }
+            Files.write(filePath, concurrentContent, StandardOpenOption.CREATE_NEW);
+
+            assertThatCode(() -> result.get(10L, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(UncheckedIOException.class)
+                    .hasRootCauseInstanceOf(FileAlreadyExistsException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(filePath)
+                .describedAs("Concurrently created file should be kept")
+                .hasBinaryContent(concurrentContent);
+        assertThat(hasTemporaryFile(parentPath))
+                .describedAs("Temporary file should be removed")
+                .isFalse();
+    }
+
+    private static boolean hasTemporaryFile(final Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.anyMatch(LocalFileSystemService::isTemporaryFile);
+        }
+    }
 }
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.stream.Stream;
 
@@ -191,4 +192,56 @@ class DeleteItemPortTest extends LocalFileSystemItemPortTestSuite {
         assertThatCode(() -> getDeleteItemPort().deleteItem(sampleFile))
                 .isInstanceOf(AbstractServiceException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should fail operations with descendants of deleted Directory")
+    void test_10() throws IOException {
+        final Directory bravoDirectory = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("bravo")
+                .parent(ALPHA)
+                .build();
+        createDirectory(bravoDirectory);
+
+        final Directory charlieDirectory = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("charlie")
+                .parent(bravoDirectory)
+                .build();
+
+        assertThatCode(() -> getCreateDirectoryPort().createDirectory(charlieDirectory))
+                .describedAs("Should create Directory w/o failures")
+                .doesNotThrowAnyException();
+
+        assertThatCode(() -> getDeleteItemPort().deleteItem(ALPHA))
+                .describedAs("Should delete Item w/o failures")
+                .doesNotThrowAnyException();
+
+        assertThatCode(() -> getDeleteItemPort().deleteItem(charlieDirectory))
+                .describedAs("Should not find descendant of deleted Directory")
+                .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Should delete Directory when Directory has wide and deep tree of children")
+    void test_11() throws IOException {
+        final Path alphaPath = createDirectory(ALPHA);
+        for (int branch = 0; branch < 8; branch++) {
+            Path directoryPath = alphaPath.resolve("branch-" + branch);
+            for (int level = 0; level < 3; level++) {
+                directoryPath = Files.createDirectories(directoryPath.resolve("level-" + level));
+                for (int index = 0; index < 20; index++) {
+                    Files.createFile(directoryPath.resolve("file-" + index));
+                }
+            }
+        }
+
+        assertThatCode(() -> getDeleteItemPort().deleteItem(ALPHA))
+                .describedAs("Should delete Item w/o failures")
+                .doesNotThrowAnyException();
+
+        Assertions.assertThat(alphaPath)
+                .describedAs("Directory should be removed")
+                .doesNotExist();
+    }
+}
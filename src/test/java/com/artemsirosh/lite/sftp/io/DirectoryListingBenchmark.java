@@ -0,0 +1,74 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.persistence.InMemoryItemRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares directory listing read from disk with listing served by
+ * registry's children index. Run with {@link #main}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DirectoryListingBenchmark extends TemporaryTreeBenchmark {
+
+    @Param({"100", "10000"})
+    int childCount;
+
+    private LocalFileSystemService service;
+    private InMemoryItemRegistry registry;
+    private Directory directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        createRootDirectory("directory-listing");
+        directory = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("alpha")
+                .build();
+
+        final Path directoryPath = Files.createDirectory(rootDirectory.resolve(directory.getName()));
+        registry = new InMemoryItemRegistry(Map.of());
+        registry.register(directory);
+        for (int i = 0; i < childCount; i++) {
+            final File file = File.builder()
+                    .name("file-" + i)
+                    .parent(directory)
+                    .build();
+
+            Files.createFile(directoryPath.resolve(file.getName()));
+            registry.register(file);
+        }
+
+        service = new LocalFileSystemService(rootDirectory);
+        service.init();
+    }
+
+    @Benchmark
+    public void listFromDisk(final Blackhole blackhole) {
+        service.getListing(directory).getItems().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void listFromRegistry(final Blackhole blackhole) {
+        registry.getListing(directory).getItems().forEach(blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DirectoryListingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,256 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.FileContent;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GetDirectoryListingPortTest extends LocalFileSystemItemPortTestSuite {
+
+    private static final Directory ALPHA = Directory.builder()
+            .name("alpha")
+            .build();
+
+    private static final Directory BRAVO = Directory.builder()
+            .name("bravo")
+            .parent(ALPHA)
+            .build();
+
+    private static final File CHARLIE_THE_FILE = File.builder()
+            .name("charlie.txt")
+            .parent(ALPHA)
+            .build();
+
+    @TempDir
+    Path rootDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        initialize(rootDirectory);
+        createDirectory(BRAVO);
+        createFile(CHARLIE_THE_FILE);
+    }
+
+    @Test
+    @DisplayName("Should list directory's files and directories")
+    void test_00() {
+        final DirectoryListing listing = getGetDirectoryListingPort().getListing(ALPHA);
+
+        assertThat(listing.getDirectory()).isEqualTo(ALPHA);
+        assertThat(listing.getItems())
+                .extracting(Item::getName, Item::isDirectory)
+                .containsExactlyInAnyOrder(
+                        tuple("bravo", true),
+                        tuple("charlie.txt", false)
+                );
+    }
+
+    @Test
+    @DisplayName("Should identify listed items by stable identifiers and link them to listed directory")
+    void test_01() {
+        final DirectoryListing listing = getGetDirectoryListingPort().getListing(ALPHA);
+
+        assertThat(listing.getItems())
+                .allSatisfy(item -> assertThat(item.getParent()).isEqualTo(ALPHA));
+        assertThat(getGetDirectoryListingPort().getListing(ALPHA).getItems())
+                .describedAs("Listed items should keep their identifiers")
+                .extracting(Item::getId)
+                .containsExactlyInAnyOrderElementsOf(
+                        listing.getItems().stream().map(Item::getId).collect(Collectors.toList())
+                );
+    }
+
+    @Test
+    @DisplayName("Should fill modified date of listed files")
+    void test_02() throws IOException {
+        final Path filePath = getDirectoryPath(ALPHA).resolve(CHARLIE_THE_FILE.getName());
+        final DirectoryListing listing = getGetDirectoryListingPort().getListing(ALPHA);
+
+        assertThat(listing.getItems())
+                .filteredOn(item -> !item.isDirectory())
+                .singleElement()
+                .extracting(item -> ((File) item).getModifiedDate())
+                .isEqualTo(Files.getLastModifiedTime(filePath).toInstant());
+    }
+
+    @Test
+    @DisplayName("Should read directory lazily and reflect its changes in next traversal")
+    void test_03() throws IOException {
+        final DirectoryListing listing = getGetDirectoryListingPort().getListing(ALPHA);
+        assertThat(listing.getItems()).hasSize(2);
+
+        Files.createFile(getDirectoryPath(ALPHA).resolve("delta"));
+        assertThat(listing.getItems()).hasSize(3);
+        assertThat(getGetDirectoryListingPort().getListing(ALPHA).getItems()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should not list temporary files")
+    void test_04() throws IOException {
+        Files.createFile(getDirectoryPath(ALPHA).resolve(
+                LocalFileSystemService.TEMPORARY_FILE_PREFIX + "foxtrot" + LocalFileSystemService.TEMPORARY_FILE_SUFFIX
+        ));
+
+        final List<String> names = new ArrayList<>();
+        getGetDirectoryListingPort().getListing(ALPHA).getItems()
+                .forEach(item -> names.add(item.getName()));
+
+        assertThat(names).containsExactlyInAnyOrder("bravo", "charlie.txt");
+    }
+
+    @Test
+    @DisplayName("Should iterate listing to the end and report empty directory")
+    void test_05() throws IOException {
+        final Directory golf = Directory.builder()
+                .name("golf")
+                .parent(ALPHA)
+                .build();
+
+        createDirectory(golf);
+        final DirectoryListing listing = getGetDirectoryListingPort().getListing(golf);
+        final Iterator<Item> iterator = listing.getItems().iterator();
+
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(listing.getItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fail when directory not exists")
+    void test_06() {
+        final Directory hotel = Directory.builder()
+                .name("hotel")
+                .build();
+
+        assertThatThrownBy(() -> getGetDirectoryListingPort().getListing(hotel))
+                .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Should list directory page by page ordered by name")
+    void test_07() throws IOException {
+        for (final String name : List.of("delta", "echo", "foxtrot")) {
+            Files.createFile(getDirectoryPath(ALPHA).resolve(name));
+        }
+
+        final List<String> names = new ArrayList<>();
+        String afterName = null;
+        DirectoryListingPage page;
+        do {
+            page = getGetDirectoryListingPort().getListingPage(ALPHA, afterName, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            page.getItems().forEach(item -> names.add(item.getName()));
+            afterName = page.getNextCursor()
+                    .map(DirectoryListingPage::decodeCursor)
+                    .orElse(null);
+        } while (afterName != null);
+
+        assertThat(names).containsExactly("bravo", "charlie.txt", "delta", "echo", "foxtrot");
+    }
+
+    @Test
+    @DisplayName("Should return last page w/o cursor when page size fits all items")
+    void test_08() {
+        final DirectoryListingPage page = getGetDirectoryListingPort().getListingPage(ALPHA, null, 2);
+
+        assertThat(page.getItems())
+                .extracting(Item::getName)
+                .containsExactly("bravo", "charlie.txt");
+        assertThat(page.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should identify listed items by identifiers they were created with")
+    void test_09() {
+        final Directory india = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("india")
+                .parent(ALPHA)
+                .build();
+        final File juliett = File.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("juliett")
+                .parent(ALPHA)
+                .build();
+        getCreateDirectoryPort().createDirectory(india);
+        getCreateFilePort().createFile(juliett, new FileContent(new byte[]{1}));
+
+        assertThat(getGetDirectoryListingPort().getListing(ALPHA).getItems())
+                .extracting(Item::getId)
+                .contains(india.getId(), juliett.getId());
+    }
+
+    @Test
+    @DisplayName("Should return whole listing when page size is maximal integer")
+    void test_10() {
+        final DirectoryListingPage page = getGetDirectoryListingPort().getListingPage(ALPHA, null, Integer.MAX_VALUE);
+
+        assertThat(page.getItems())
+                .extracting(Item::getName)
+                .containsExactly("bravo", "charlie.txt");
+        assertThat(page.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not store identifiers of listed entries created bypassing the service")
+    void test_11() {
+        getGetDirectoryListingPort().getListing(ALPHA).getItems().forEach(item -> { });
+
+        assertThat(ItemIdAttributes.read(getDirectoryPath(ALPHA).resolve(CHARLIE_THE_FILE.getName()))).isEmpty();
+        assertThat(ItemIdAttributes.read(getDirectoryPath(BRAVO))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not list symbolic links")
+    void test_12() throws IOException {
+        final Path directoryPath = getDirectoryPath(ALPHA);
+        Files.createSymbolicLink(directoryPath.resolve("kilo"), directoryPath.resolve(CHARLIE_THE_FILE.getName()));
+
+        final DirectoryListing listing = getGetDirectoryListingPort().getListing(ALPHA);
+
+        assertThat(listing.getItems())
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("bravo", "charlie.txt");
+        assertThat(listing.getItems()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should skip entries removed while directory is listed")
+    void test_13() throws IOException {
+        final Path directoryPath = getDirectoryPath(ALPHA);
+        final List<Path> paths = new ArrayList<>();
+        for (int index = 0; index < 64; index++) {
+            paths.add(Files.createFile(directoryPath.resolve("lima-" + index)));
+        }
+
+        final List<String> names = new ArrayList<>();
+        getGetDirectoryListingPort().getListing(ALPHA).getItems().forEach(item -> {
+            if (names.isEmpty()) {
+                paths.forEach(path -> path.toFile().delete());
+            }
+
+            names.add(item.getName());
+        });
+
+        assertThat(names).hasSizeLessThan(66);
+    }
+}
@@ -3,17 +3,26 @@ package com.artemsirosh.lite.sftp.io;
 import com.artemsirosh.lite.sftp.domain.Directory;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.MessageDigest;
 import java.util.List;
+import java.util.zip.CRC32C;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -101,4 +110,110 @@ class GetFileContentPortTest extends LocalFileSystemItemPortTestSuite {
         assertThatCode(() -> getGetFileContentPort().getFileContent(File.builder().name("foo").build()))
                 .isNotNull();
     }
+
+    @Test
+    @DisplayName("Should open file content channel which transfers whole content")
+    void test_05() throws IOException {
+        final var target = new ByteArrayOutputStream();
+        try (FileChannel channel = getGetFileContentPort().openFileContent(CHARLIE_THE_FILE)) {
+            assertThat(channel.size())
+                    .describedAs("Channel should expose file size")
+                    .isEqualTo(CONTENT.getContent().length);
+
+            channel.transferTo(0L, channel.size(), Channels.newChannel(target));
+        }
+
+        assertThat(target.toByteArray())
+                .isEqualTo(CONTENT.getContent());
+    }
+
+    @Test
+    @DisplayName("Should fail opening content channel when there is no such file")
+    void test_06() {
+        final File file = File.builder()
+                .name("foo")
+                .parent(ALPHA_PARENT)
+                .build();
+
+        assertThatCode(() -> getGetFileContentPort().openFileContent(file))
+                .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Should retrieve requested range of file content")
+    void test_07() {
+        final FileContent actual = getGetFileContentPort().getFileContent(CHARLIE_THE_FILE, 2L, 3L);
+        assertThat(actual)
+                .extracting("content")
+                .isEqualTo(new byte[]{15, 16, 23});
+    }
+
+    @Test
+    @DisplayName("Should truncate range of file content to the end of file")
+    void test_08() {
+        final FileContent actual = getGetFileContentPort().getFileContent(CHARLIE_THE_FILE, 4L, Long.MAX_VALUE);
+        assertThat(actual)
+                .extracting("content")
+                .isEqualTo(new byte[]{23, 42});
+    }
+
+    @Test
+    @DisplayName("Should retrieve empty content when range starts after the end of file")
+    void test_09() {
+        final FileContent actual = getGetFileContentPort().getFileContent(CHARLIE_THE_FILE, 100L, 10L);
+        assertThat(actual)
+                .extracting("content")
+                .isEqualTo(new byte[0]);
+    }
+
+    @Test
+    @DisplayName("Should retrieve CRC-32C checksum computed when file was written")
+    void test_10() throws IOException {
+        assumeUserDefinedAttributesSupported();
+        final File deltaFile = File.builder()
+                .name("delta.txt")
+                .parent(ALPHA_PARENT)
+                .build();
+
+        getCreateFilePort().createFile(deltaFile, CONTENT);
+        final CRC32C expected = new CRC32C();
+        expected.update(CONTENT.getContent());
+
+        final FileContent actual = getGetFileContentPort().getFileContent(deltaFile);
+        assertThat(actual.getChecksum())
+                .isEqualTo(ByteBuffer.allocate(Integer.BYTES).putInt((int) expected.getValue()).array());
+    }
+
+    @Test
+    @DisplayName("Should retrieve SHA-256 checksum when it's configured")
+    void test_11() throws Exception {
+        assumeUserDefinedAttributesSupported();
+        initialize(workingDir, LocalFileSystemSettings.builder()
+                .checksumAlgorithm(ChecksumAlgorithm.SHA_256)
+                .build());
+
+        final File deltaFile = File.builder()
+                .name("delta.txt")
+                .parent(ALPHA_PARENT)
+                .build();
+
+        getCreateFilePort().createFile(deltaFile, CONTENT);
+        final FileContent actual = getGetFileContentPort().getFileContent(deltaFile);
+        assertThat(actual.getChecksum())
+                .isEqualTo(MessageDigest.getInstance("SHA-256").digest(CONTENT.getContent()));
+    }
+
+    @Test
+    @DisplayName("Should retrieve empty checksum when file was written outside")
+    void test_12() {
+        final FileContent actual = getGetFileContentPort().getFileContent(CHARLIE_THE_FILE);
+        assertThat(actual.getChecksum()).isEmpty();
+    }
+
+    private void assumeUserDefinedAttributesSupported() throws IOException {
+        Assumptions.assumeTrue(
+                Files.getFileStore(workingDir).supportsFileAttributeView(UserDefinedFileAttributeView.class),
+                "File store doesn't support user-defined attributes"
+        );
+    }
 }
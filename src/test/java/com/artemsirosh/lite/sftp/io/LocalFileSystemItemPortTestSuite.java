@@ -5,7 +5,11 @@ import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.port.outbound.CreateDirectoryPort;
 import com.artemsirosh.lite.sftp.port.outbound.CreateFilePort;
 import com.artemsirosh.lite.sftp.port.outbound.DeleteItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetFileContentPort;
+import com.artemsirosh.lite.sftp.port.outbound.MoveItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.TrashItemPort;
+import org.junit.jupiter.api.AfterEach;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -24,11 +28,24 @@ abstract class LocalFileSystemItemPortTestSuite {
     private LocalFileSystemService service;
 
     void initialize(final Path temporaryDirectory) {
+        initialize(temporaryDirectory, LocalFileSystemSettings.DEFAULT);
+    }
+
+    void initialize(final Path temporaryDirectory, final LocalFileSystemSettings settings) {
+        closeService();
         this.temporaryDirectory = temporaryDirectory;
-        this.service = new LocalFileSystemService(temporaryDirectory);
+        this.service = new LocalFileSystemService(temporaryDirectory, settings);
         this.service.init();
     }
 
+    @AfterEach
+    void closeService() {
+        if (service != null) {
+            service.close();
+            service = null;
+        }
+    }
+
     Path createDirectory(final Directory directory) throws IOException {
         Path directoryPath = temporaryDirectory;
         for (final String name : directory.calculatePath()) {
@@ -80,4 +97,16 @@ abstract class LocalFileSystemItemPortTestSuite {
     GetFileContentPort getGetFileContentPort() {
         return service;
     }
+
+    TrashItemPort getTrashItemPort() {
+        return service;
+    }
+
+    GetDirectoryListingPort getGetDirectoryListingPort() {
+        return service;
+    }
+
+    MoveItemPort getMoveItemPort() {
+        return service;
+    }
 }
@@ -0,0 +1,116 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class MoveItemPortTest extends LocalFileSystemItemPortTestSuite {
+
+    private static final byte[] CONTENT = new byte[]{4, 8, 15, 16, 23, 42};
+
+    private static final Directory ALPHA = Directory.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("alpha")
+            .build();
+
+    private static final Directory BRAVO = Directory.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("bravo")
+            .build();
+
+    private static final File CHARLIE_THE_FILE = File.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("charlie")
+            .parent(ALPHA)
+            .build();
+
+    @TempDir
+    Path rootDirectory;
+
+    @BeforeEach
+    void setUp() {
+        initialize(rootDirectory);
+    }
+
+    @Test
+    @DisplayName("Should rename file keeping its content")
+    void test_00() throws IOException {
+        final Path filePath = createFile(CHARLIE_THE_FILE, new ByteArrayInputStream(CONTENT));
+        final File renamed = File.builder()
+                .id(CHARLIE_THE_FILE.getId())
+                .name("delta")
+                .parent(ALPHA)
+                .build();
+
+        getMoveItemPort().moveItem(CHARLIE_THE_FILE, renamed);
+
+        assertThat(filePath).doesNotExist();
+        assertThat(filePath.resolveSibling("delta")).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should move file to another directory")
+    void test_01() throws IOException {
+        final Path filePath = createFile(CHARLIE_THE_FILE, new ByteArrayInputStream(CONTENT));
+        final Path targetDirectory = createDirectory(BRAVO);
+        final File moved = File.builder()
+                .id(CHARLIE_THE_FILE.getId())
+                .name(CHARLIE_THE_FILE.getName())
+                .parent(BRAVO)
+                .build();
+
+        getMoveItemPort().moveItem(CHARLIE_THE_FILE, moved);
+
+        assertThat(filePath).doesNotExist();
+        assertThat(targetDirectory.resolve("charlie")).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should not move file over existing one")
+    void test_02() throws IOException {
+        final Path filePath = createFile(CHARLIE_THE_FILE, new ByteArrayInputStream(CONTENT));
+        final File existing = File.builder()
+                .name("delta")
+                .parent(ALPHA)
+                .build();
+        createFile(existing);
+
+        assertThatCode(() -> getMoveItemPort().moveItem(CHARLIE_THE_FILE, existing))
+                .isInstanceOf(AbstractServiceException.class);
+        assertThat(filePath).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should resolve children of renamed directory by its new path")
+    void test_03() throws IOException {
+        createFile(CHARLIE_THE_FILE, new ByteArrayInputStream(CONTENT));
+        getGetFileContentPort().getFileContent(CHARLIE_THE_FILE);
+        final Directory renamed = Directory.builder()
+                .id(ALPHA.getId())
+                .name("echo")
+                .build();
+
+        getMoveItemPort().moveItem(ALPHA, renamed);
+
+        final File relinked = File.builder()
+                .id(CHARLIE_THE_FILE.getId())
+                .name(CHARLIE_THE_FILE.getName())
+                .parent(renamed)
+                .build();
+        assertThat(getGetFileContentPort().getFileContent(relinked))
+                .extracting("content")
+                .isEqualTo(CONTENT);
+    }
+}
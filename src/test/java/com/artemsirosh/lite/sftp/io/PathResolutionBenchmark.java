@@ -0,0 +1,71 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares item path resolution with and without resolved path cache on
+ * different depths of directory tree. Run with {@link #main}.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathResolutionBenchmark extends TemporaryTreeBenchmark {
+
+    @Param({"1", "4", "12"})
+    int depth;
+
+    @Param({"0", "10000"})
+    long pathCacheSize;
+
+    private LocalFileSystemService service;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        createRootDirectory("path-resolution");
+
+        Item parent = null;
+        Path parentPath = rootDirectory;
+        for (int level = 0; level < depth; level++) {
+            final Directory directory = Directory.builder()
+                    .name("level-" + level)
+                    .parent(parent)
+                    .build();
+
+            parentPath = Files.createDirectory(parentPath.resolve(directory.getName()));
+            parent = directory;
+        }
+
+        file = File.builder()
+                .name("sample")
+                .parent(parent)
+                .build();
+
+        service = new LocalFileSystemService(
+                rootDirectory,
+                LocalFileSystemSettings.builder().pathCacheSize(pathCacheSize).build()
+        );
+        service.init();
+    }
+
+    @Benchmark
+    public Path resolveItemPath() {
+        return service.getItemPath(file);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathResolutionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.artemsirosh.lite.sftp.io;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Base of benchmarks running against directory tree in temporary
+ * directory, which is removed after benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class TemporaryTreeBenchmark {
+
+    protected Path rootDirectory;
+
+    /**
+     * Creates root of tree, debug logging of service is turned off, so it
+     * doesn't affect measurements.
+     */
+    protected Path createRootDirectory(final String prefix) throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        rootDirectory = Files.createTempDirectory(prefix);
+        return rootDirectory;
+    }
+
+    @TearDown
+    public void deleteRootDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(rootDirectory)) {
+            for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.artemsirosh.lite.sftp.io;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class TrashItemPortTest extends LocalFileSystemItemPortTestSuite {
+
+    private static final long RECLAIM_TIMEOUT_MILLIS = 10_000L;
+
+    private static final Directory ALPHA = Directory.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("alpha")
+            .build();
+
+    private static final File BRAVO_THE_FILE = File.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("bravo")
+            .parent(ALPHA)
+            .build();
+
+    @TempDir
+    Path rootDirectory;
+
+    @BeforeEach
+    void setUp() {
+        initialize(rootDirectory);
+    }
+
+    @Test
+    @DisplayName("Should remove Item from its place at once when Item trashed")
+    void test_00() throws IOException {
+        final Path filePath = createFile(BRAVO_THE_FILE);
+
+        assertThatCode(() -> getTrashItemPort().trashItem(ALPHA))
+                .describedAs("Should trash Item w/o failures")
+                .doesNotThrowAnyException();
+
+        assertThat(getDirectoryPath(ALPHA))
+                .describedAs("Directory should be removed")
+                .doesNotExist();
+
+        assertThat(filePath)
+                .describedAs("Directory content should be removed")
+                .doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should reclaim trashed Item data in background")
+    void test_01() throws Exception {
+        createFile(BRAVO_THE_FILE);
+        getTrashItemPort().trashItem(ALPHA);
+
+        assertThat(awaitTrashEmpty())
+                .describedAs("Trash should be emptied")
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reclaim trash entries left by previous run when initialized")
+    void test_02() throws Exception {
+        final Path leftover = Files.createDirectories(
+                rootDirectory.resolve(LocalFileSystemService.TRASH_DIRECTORY_NAME).resolve("leftover")
+        );
+        Files.createFile(leftover.resolve("charlie"));
+
+        initialize(rootDirectory);
+
+        assertThat(awaitTrashEmpty())
+                .describedAs("Trash should be emptied")
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fail trashing Item when Item not exists")
+    void test_03() {
+        assertThatCode(() -> getTrashItemPort().trashItem(ALPHA))
+                .isInstanceOf(AbstractServiceException.class);
+    }
+
+    private boolean awaitTrashEmpty() throws IOException, InterruptedException {
+        final Path trashDirectory = rootDirectory.resolve(LocalFileSystemService.TRASH_DIRECTORY_NAME);
+        final long deadline = System.currentTimeMillis() + RECLAIM_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try (Stream<Path> entries = Files.list(trashDirectory)) {
+                if (entries.findAny().isEmpty()) {
+                    return true;
+                }
+            }
+            Thread.sleep(50L);
+        }
+
+        return false;
+    }
+}
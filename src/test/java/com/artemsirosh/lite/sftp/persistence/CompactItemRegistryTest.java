@@ -0,0 +1,147 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class CompactItemRegistryTest {
+
+    private static final Directory ALPHA_DIR = Directory.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("alpha")
+        .build();
+
+    private static final Directory BRAVO_DIR = Directory.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("bravo")
+        .parent(ALPHA_DIR)
+        .build();
+
+    private static final File CHARLIE_THE_FILE = File.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("charlie")
+        .parent(BRAVO_DIR)
+        .modifiedDate(Instant.parse("2007-09-01T10:00:00Z"))
+        .build();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Must build registered item with its parents")
+    void test_00(final boolean offHeap) {
+        final CompactItemRegistry registry = new CompactItemRegistry(offHeap);
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+
+        final Item actual = registry.getItemById(CHARLIE_THE_FILE.getId());
+        assertThat(actual).isEqualTo(CHARLIE_THE_FILE);
+        assertThat(actual.calculatePath()).containsExactly("alpha", "bravo");
+    }
+
+    @Test
+    @DisplayName("Must replace item registered with same id")
+    void test_01() {
+        final CompactItemRegistry registry = new CompactItemRegistry();
+        final Directory renamed = Directory.builder()
+            .id(ALPHA_DIR.getId())
+            .name("delta")
+            .build();
+        registry.register(ALPHA_DIR);
+        registry.register(renamed);
+
+        assertThat(registry.getItemById(ALPHA_DIR.getId()).getName()).isEqualTo("delta");
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Must not find unregistered item")
+    void test_02() {
+        final CompactItemRegistry registry = new CompactItemRegistry();
+        registry.register(ALPHA_DIR);
+        registry.unregister(ALPHA_DIR.getId());
+
+        assertThatCode(() -> registry.getItemById(ALPHA_DIR.getId()))
+            .isInstanceOf(AbstractServiceException.class)
+            .hasMessageContaining(ALPHA_DIR.getId().toString());
+        assertThat(registry.size()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Must keep items while table grows and reclaims unregistered ones")
+    void test_03(final boolean offHeap) {
+        final CompactItemRegistry registry = new CompactItemRegistry(offHeap);
+        final List<Directory> directories = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            final Directory directory = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("directory-" + i)
+                .parent(ALPHA_DIR)
+                .build();
+            directories.add(directory);
+            registry.register(directory);
+        }
+        registry.register(ALPHA_DIR);
+        for (int i = 0; i < directories.size(); i += 2) {
+            registry.unregister(directories.get(i).getId());
+        }
+        for (int i = 0; i < 20_000; i++) {
+            registry.register(File.builder().id(ItemId.newInstanceUUID()).name("file-" + i).build());
+        }
+
+        assertThat(registry.size()).isEqualTo(30_001);
+        for (int i = 1; i < directories.size(); i += 2) {
+            assertThat(registry.getItemById(directories.get(i).getId())).isEqualTo(directories.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Must keep items with path identifiers")
+    void test_04() {
+        final CompactItemRegistry registry = new CompactItemRegistry();
+        final File file = File.builder()
+            .id(ItemId.of("alpha", "echo"))
+            .name("echo")
+            .parent(ALPHA_DIR)
+            .build();
+        registry.registerAll(List.of(ALPHA_DIR, file));
+
+        assertThat(registry.getItemById(file.getId())).isEqualTo(file);
+        registry.unregister(file.getId());
+        assertThatCode(() -> registry.getItemById(file.getId())).isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must read items consistently while they are being written")
+    void test_05() throws Exception {
+        final CompactItemRegistry registry = new CompactItemRegistry();
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 50_000; i++) {
+                registry.register(File.builder().id(ItemId.newInstanceUUID()).name("file-" + i).build());
+            }
+            writing.set(false);
+        });
+
+        while (writing.get()) {
+            assertThat(registry.getItemById(CHARLIE_THE_FILE.getId())).isEqualTo(CHARLIE_THE_FILE);
+        }
+        writer.get(30L, TimeUnit.SECONDS);
+    }
+}
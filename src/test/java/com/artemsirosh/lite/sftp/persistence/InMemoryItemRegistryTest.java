@@ -2,6 +2,7 @@ package com.artemsirosh.lite.sftp.persistence;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.domain.ItemId;
@@ -171,6 +173,131 @@ class InMemoryItemRegistryTest {
             .doesNotThrowAnyException();
     }
 
+    @Test
+    @DisplayName("Must register batch of items")
+    void test_10() {
+        final Item delta = Directory.builder()
+            .name("delta")
+            .parent(ALPHA_DIR)
+            .build();
+
+        registerItemPort.registerAll(List.of(CHARLIE_THE_FILE, delta));
+
+        assertThat(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).isEqualTo(CHARLIE_THE_FILE);
+        assertThat(getItemByIdPort.getItemById(delta.getId())).isEqualTo(delta);
+    }
+
+    @Test
+    @DisplayName("Must list registered children of directory ordered by name")
+    void test_11() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+        registerItemPort.register(CHARLIE_THE_FILE);
+
+        assertThat(registry.getListing((Directory) ALPHA_DIR).getItems())
+            .extracting(Item::getName)
+            .containsExactly("bravo", "charlie");
+    }
+
+    @Test
+    @DisplayName("Must drop unregistered and renamed items from children index")
+    void test_12() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+        registerItemPort.register(CHARLIE_THE_FILE);
+        unregisterItemPort.unregister(BRAVO_ID);
+        registerItemPort.register(File.builder()
+            .id(CHARLIE_THE_FILE.getId())
+            .name("delta")
+            .parent(ALPHA_DIR)
+            .build());
+
+        assertThat(registry.getListing((Directory) ALPHA_DIR).getItems())
+            .extracting(Item::getName)
+            .containsExactly("delta");
+    }
+
+    @Test
+    @DisplayName("Must return page of children following given name")
+    void test_13() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+        registerItemPort.register(CHARLIE_THE_FILE);
+
+        final DirectoryListingPage page = registry.getListingPage((Directory) ALPHA_DIR, "bravo", 1);
+
+        assertThat(page.getItems())
+            .extracting(Item::getName)
+            .containsExactly("charlie");
+        assertThat(page.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Must resolve item path to its id")
+    void test_14() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+        registerItemPort.register(CHARLIE_THE_FILE);
+
+        assertThat(registry.resolvePath(List.of("alpha", "charlie"))).contains(CHARLIE_THE_FILE.getId());
+        assertThat(registry.resolvePath(List.of("alpha", "bravo"))).contains(BRAVO_ID);
+        assertThat(registry.resolvePath(List.of("alpha", "delta"))).isEmpty();
+        assertThat(registry.resolvePath(List.of("alpha", "charlie", "echo"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Must replace item only when registered item has expected version")
+    void test_15() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+        registerItemPort.register(CHARLIE_THE_FILE);
+        final File renamed = File.builder()
+            .id(CHARLIE_THE_FILE.getId())
+            .name("delta")
+            .parent(ALPHA_DIR)
+            .version(1L)
+            .build();
+        final File stale = File.builder()
+            .id(CHARLIE_THE_FILE.getId())
+            .name("echo")
+            .parent(ALPHA_DIR)
+            .version(1L)
+            .build();
+
+        assertThat(registry.replace(renamed, 0L)).isTrue();
+        assertThat(registry.replace(stale, 0L)).isFalse();
+
+        assertThat(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).isSameAs(renamed);
+        assertThat(registry.resolvePath(List.of("alpha", "delta"))).contains(CHARLIE_THE_FILE.getId());
+        assertThat(registry.resolvePath(List.of("alpha", "charlie"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Must throw exception when replaced item not registered")
+    void test_16() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+
+        assertThatCode(() -> registry.replace(CHARLIE_THE_FILE, 0L))
+            .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must unregister descendants of unregistered directory")
+    void test_17() {
+        final var registry = (InMemoryItemRegistry) registerItemPort;
+        final Directory bravo = (Directory) getItemByIdPort.getItemById(BRAVO_ID);
+        final File delta = File.builder()
+            .name("delta")
+            .parent(bravo)
+            .build();
+        registerItemPort.registerAll(List.of(CHARLIE_THE_FILE, delta));
+
+        unregisterItemPort.unregister(ALPHA_ID);
+
+        assertThat(registry.resolvePath(List.of("alpha", "bravo", "delta"))).isEmpty();
+        assertThat(registry.getListing(bravo).getItems()).isEmpty();
+        for (final ItemId id : List.of(BRAVO_ID, CHARLIE_THE_FILE.getId(), delta.getId())) {
+            assertThatCode(() -> getItemByIdPort.getItemById(id))
+                .describedAs("Descendant %s should be unregistered", id)
+                .isInstanceOf(AbstractServiceException.class);
+        }
+    }
+
     private static class TestException extends AbstractServiceException {
         TestException() {
             super("Test exception");
@@ -0,0 +1,234 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class JournaledItemRegistryTest {
+
+    private static final JournalSettings SETTINGS = JournalSettings.builder()
+        .groupCommitInterval(Duration.ofMillis(1L))
+        .snapshotInterval(Duration.ofHours(1L))
+        .build();
+
+    private static final Directory ALPHA_DIR = Directory.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("alpha")
+        .build();
+
+    private static final Directory BRAVO_DIR = Directory.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("bravo")
+        .parent(ALPHA_DIR)
+        .build();
+
+    private static final File CHARLIE_THE_FILE = File.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("charlie")
+        .parent(BRAVO_DIR)
+        .modifiedDate(Instant.parse("2007-09-01T10:00:00Z"))
+        .build();
+
+    @TempDir
+    Path directory;
+
+    private JournaledItemRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = JournaledItemRegistry.open(directory, SETTINGS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("Must recover registered items from journal after restart")
+    void test_00() throws IOException {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+
+        reopen();
+
+        final Item actual = registry.getItemById(CHARLIE_THE_FILE.getId());
+        assertThat(actual).isEqualTo(CHARLIE_THE_FILE);
+        assertThat(actual.calculatePath()).containsExactly("alpha", "bravo");
+        assertThat(actual.getParent())
+            .describedAs("Parent should be shared with registered parent")
+            .isSameAs(registry.getItemById(BRAVO_DIR.getId()));
+    }
+
+    @Test
+    @DisplayName("Must not recover unregistered items")
+    void test_01() throws IOException {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR));
+        registry.unregister(BRAVO_DIR.getId());
+
+        reopen();
+
+        assertThatCode(() -> registry.getItemById(BRAVO_DIR.getId()))
+            .isInstanceOf(AbstractServiceException.class);
+        assertThat(registry.getItemById(ALPHA_DIR.getId())).isEqualTo(ALPHA_DIR);
+    }
+
+    @Test
+    @DisplayName("Must recover from snapshot and journal written after it")
+    void test_02() throws IOException {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR));
+        registry.snapshot();
+        registry.register(CHARLIE_THE_FILE);
+        registry.unregister(ALPHA_DIR.getId());
+
+        reopen();
+
+        assertThat(registry.getItemById(CHARLIE_THE_FILE.getId())).isEqualTo(CHARLIE_THE_FILE);
+        assertThat(registry.getItemById(BRAVO_DIR.getId())).isEqualTo(BRAVO_DIR);
+        assertThatCode(() -> registry.getItemById(ALPHA_DIR.getId()))
+            .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must drop journal segments covered by snapshot")
+    void test_03() throws IOException {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR));
+        registry.snapshot();
+        registry.snapshot();
+
+        assertThat(listFiles("journal-")).hasSize(1);
+        assertThat(listFiles("snapshot-")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Must recover records preceding torn tail of journal")
+    void test_04() throws IOException {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR));
+        registry.close();
+
+        final List<Path> segments = listFiles("journal-");
+        Files.write(segments.get(segments.size() - 1), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        registry = JournaledItemRegistry.open(directory, SETTINGS);
+        registry.register(CHARLIE_THE_FILE);
+        reopen();
+
+        assertThat(registry.getItemById(BRAVO_DIR.getId())).isEqualTo(BRAVO_DIR);
+        assertThat(registry.getItemById(CHARLIE_THE_FILE.getId())).isEqualTo(CHARLIE_THE_FILE);
+    }
+
+    @Test
+    @DisplayName("Must recover replacement but not rejected replacement")
+    void test_05() throws IOException {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR));
+        final Directory renamed = Directory.builder()
+            .id(BRAVO_DIR.getId())
+            .name("delta")
+            .parent(ALPHA_DIR)
+            .version(1L)
+            .build();
+        final Directory rejected = Directory.builder()
+            .id(BRAVO_DIR.getId())
+            .name("echo")
+            .parent(ALPHA_DIR)
+            .version(1L)
+            .build();
+        registry.replace(renamed, 0L);
+        registry.replace(rejected, 0L);
+        reopen();
+
+        assertThat(registry.getItemById(BRAVO_DIR.getId()).getName()).isEqualTo("delta");
+    }
+
+    @Test
+    @DisplayName("Must recover items from snapshot with their parents linked")
+    void test_06() throws IOException {
+        registry.registerAll(List.of(CHARLIE_THE_FILE, BRAVO_DIR, ALPHA_DIR));
+        final File orphan = File.builder()
+            .id(ItemId.newInstanceUUID())
+            .name("delta")
+            .parent(Directory.builder().id(ItemId.newInstanceUUID()).name("echo").build())
+            .build();
+        registry.register(orphan);
+        registry.snapshot();
+        reopen();
+
+        final Item charlie = registry.getItemById(CHARLIE_THE_FILE.getId());
+        assertThat(charlie).isEqualTo(CHARLIE_THE_FILE);
+        assertThat(charlie.getParent()).isSameAs(registry.getItemById(BRAVO_DIR.getId()));
+        assertThat(charlie.calculatePath()).containsExactly("alpha", "bravo");
+        assertThat(registry.getItemById(orphan.getId()).calculatePath())
+            .describedAs("Item with unregistered parent should keep its ancestors")
+            .containsExactly("echo");
+    }
+
+    @Test
+    @DisplayName("Must recover the last of concurrent registrations of the same item")
+    void test_07() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final int threadNumber = thread;
+                results.add(executor.submit(() -> {
+                    for (int index = 0; index < 500; index++) {
+                        registry.register(Directory.builder()
+                            .id(BRAVO_DIR.getId())
+                            .name("bravo-" + threadNumber + "-" + index)
+                            .build());
+                    }
+                }));
+            }
+
+            for (final Future<?> result : results) {
+                result.get(30L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final String registeredName = registry.getItemById(BRAVO_DIR.getId()).getName();
+        reopen();
+
+        assertThat(registry.getItemById(BRAVO_DIR.getId()).getName()).isEqualTo(registeredName);
+    }
+
+    private void reopen() throws IOException {
+        registry.close();
+        registry = JournaledItemRegistry.open(directory, SETTINGS);
+    }
+
+    private List<Path> listFiles(final String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(prefix))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+}
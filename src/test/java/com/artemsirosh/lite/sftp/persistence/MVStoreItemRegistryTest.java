@@ -0,0 +1,222 @@
+package com.artemsirosh.lite.sftp.persistence;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.File;
+import com.artemsirosh.lite.sftp.domain.Item;
+import com.artemsirosh.lite.sftp.domain.ItemId;
+import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class MVStoreItemRegistryTest {
+
+    private static final Directory ALPHA_DIR = Directory.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("alpha")
+        .build();
+
+    private static final Directory BRAVO_DIR = Directory.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("bravo")
+        .parent(ALPHA_DIR)
+        .build();
+
+    private static final File CHARLIE_THE_FILE = File.builder()
+        .id(ItemId.newInstanceUUID())
+        .name("charlie")
+        .parent(BRAVO_DIR)
+        .modifiedDate(Instant.parse("2007-09-01T10:00:00Z"))
+        .build();
+
+    @TempDir
+    Path directory;
+
+    private MVStoreItemRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MVStoreItemRegistry(directory.resolve("registry.mv.db"), 1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("Must find registered item")
+    void test_00() {
+        registry.register(ALPHA_DIR);
+
+        assertThat(registry.getItemById(ALPHA_DIR.getId())).isEqualTo(ALPHA_DIR);
+    }
+
+    @Test
+    @DisplayName("Must restore parents of item evicted from cache")
+    void test_01() {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+        registry.getItemById(ALPHA_DIR.getId());
+
+        final Item actual = registry.getItemById(CHARLIE_THE_FILE.getId());
+        assertThat(actual).isEqualTo(CHARLIE_THE_FILE);
+        assertThat(actual.calculatePath()).containsExactly("alpha", "bravo");
+    }
+
+    @Test
+    @DisplayName("Must keep registered items after reopening")
+    void test_02() {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+        registry.close();
+
+        registry = new MVStoreItemRegistry(directory.resolve("registry.mv.db"), 100L);
+
+        assertThat(registry.getItemById(CHARLIE_THE_FILE.getId())).isEqualTo(CHARLIE_THE_FILE);
+    }
+
+    @Test
+    @DisplayName("Must not find unregistered item")
+    void test_03() {
+        registry.register(ALPHA_DIR);
+        registry.unregister(ALPHA_DIR.getId());
+
+        assertThatCode(() -> registry.getItemById(ALPHA_DIR.getId()))
+            .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must fail when item id is null")
+    void test_04() {
+        assertThatCode(() -> registry.getItemById(null))
+            .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must list children of directory ordered by name")
+    void test_05() {
+        final File deltaTheFile = File.builder().name("delta").parent(BRAVO_DIR).build();
+        final Directory echoDir = Directory.builder().name("echo").parent(BRAVO_DIR).build();
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, echoDir, CHARLIE_THE_FILE, deltaTheFile));
+
+        assertThat(registry.getListing(BRAVO_DIR).getItems())
+            .containsExactly(CHARLIE_THE_FILE, deltaTheFile, echoDir);
+        assertThat(registry.getListing(ALPHA_DIR).getItems()).containsExactly(BRAVO_DIR);
+        assertThat(registry.getListing(echoDir).getItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Must return listing page starting after given name")
+    void test_06() {
+        final File deltaTheFile = File.builder().name("delta").parent(BRAVO_DIR).build();
+        final File echoTheFile = File.builder().name("echo").parent(BRAVO_DIR).build();
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE, deltaTheFile, echoTheFile));
+
+        final DirectoryListingPage first = registry.getListingPage(BRAVO_DIR, null, 2);
+        assertThat(first.getItems()).containsExactly(CHARLIE_THE_FILE, deltaTheFile);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        final DirectoryListingPage second = registry.getListingPage(BRAVO_DIR, "delta", 2);
+        assertThat(second.getItems()).containsExactly(echoTheFile);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Must resolve path of registered item")
+    void test_07() {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+
+        assertThat(registry.resolvePath(List.of("alpha", "bravo", "charlie"))).contains(CHARLIE_THE_FILE.getId());
+        assertThat(registry.resolvePath(List.of("alpha", "charlie"))).isEmpty();
+        assertThat(registry.resolvePath(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Must replace item only if it has expected version")
+    void test_08() {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+        final File renamed = File.builder()
+            .id(CHARLIE_THE_FILE.getId())
+            .name("delta")
+            .parent(BRAVO_DIR)
+            .version(1L)
+            .build();
+
+        assertThat(registry.replace(renamed, 1L)).isFalse();
+        assertThat(registry.replace(renamed, 0L)).isTrue();
+        assertThat(registry.replace(renamed, 0L)).isFalse();
+
+        registry.close();
+        registry = new MVStoreItemRegistry(directory.resolve("registry.mv.db"), 1L);
+
+        final Item actual = registry.getItemById(CHARLIE_THE_FILE.getId());
+        assertThat(actual.getName()).isEqualTo("delta");
+        assertThat(actual.getVersion()).isEqualTo(1L);
+        assertThat(registry.resolvePath(List.of("alpha", "bravo", "charlie"))).isEmpty();
+        assertThat(registry.resolvePath(List.of("alpha", "bravo", "delta"))).contains(CHARLIE_THE_FILE.getId());
+    }
+
+    @Test
+    @DisplayName("Must not list unregistered item")
+    void test_09() {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+        registry.unregister(CHARLIE_THE_FILE.getId());
+
+        assertThat(registry.getListing(BRAVO_DIR).getItems()).isEmpty();
+        assertThat(registry.resolvePath(List.of("alpha", "bravo", "charlie"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Must fail to replace unregistered item")
+    void test_10() {
+        assertThatCode(() -> registry.replace(ALPHA_DIR, 0L))
+            .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must unregister descendants of unregistered directory")
+    void test_11() {
+        registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+
+        registry.unregister(ALPHA_DIR.getId());
+
+        assertThat(registry.resolvePath(List.of("alpha", "bravo", "charlie"))).isEmpty();
+        assertThat(registry.getListing(BRAVO_DIR).getItems()).isEmpty();
+        assertThatCode(() -> registry.getItemById(CHARLIE_THE_FILE.getId()))
+            .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @DisplayName("Must not keep item loaded concurrently with its unregistering")
+    void test_12() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            registry.registerAll(List.of(ALPHA_DIR, BRAVO_DIR, CHARLIE_THE_FILE));
+            final Thread reader = new Thread(() -> {
+                for (int attempt = 0; attempt < 100; attempt++) {
+                    try {
+                        registry.getItemById(CHARLIE_THE_FILE.getId());
+                        registry.getItemById(ALPHA_DIR.getId());
+                    } catch (AbstractServiceException exc) {
+                        return;
+                    }
+                }
+            });
+            reader.start();
+            registry.unregister(CHARLIE_THE_FILE.getId());
+            reader.join();
+
+            assertThatCode(() -> registry.getItemById(CHARLIE_THE_FILE.getId()))
+                .isInstanceOf(AbstractServiceException.class);
+        }
+    }
+}
@@ -2,17 +2,26 @@ package com.artemsirosh.lite.sftp.service;
 
 import com.artemsirosh.lite.sftp.domain.Directory;
 import com.artemsirosh.lite.sftp.domain.DirectoryListing;
+import com.artemsirosh.lite.sftp.domain.DirectoryListingPage;
+import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.domain.ItemId;
 import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.port.inbound.CreateDirectoryCommand;
+import com.artemsirosh.lite.sftp.port.inbound.BatchItemResult;
 import com.artemsirosh.lite.sftp.port.inbound.DeleteItemCommand;
+import com.artemsirosh.lite.sftp.port.inbound.DeleteItemsCommand;
+import com.artemsirosh.lite.sftp.port.inbound.DeleteMode;
 import com.artemsirosh.lite.sftp.port.inbound.GetDirectoryChildrenQuery;
+import com.artemsirosh.lite.sftp.port.inbound.ResolveItemPathQuery;
 import com.artemsirosh.lite.sftp.port.outbound.CreateDirectoryPort;
 import com.artemsirosh.lite.sftp.port.outbound.DeleteItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetDirectoryListingPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
+import com.artemsirosh.lite.sftp.port.outbound.InvalidateDirectoryListingPort;
 import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ResolveItemPathPort;
+import com.artemsirosh.lite.sftp.port.outbound.TrashItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.UnregisterItemPort;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -23,20 +32,28 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -69,6 +86,21 @@ class DirectoryServiceTest {
     @Mock
     private UnregisterItemPort unregisterItemPort;
 
+    @Mock
+    private TrashItemPort trashItemPort;
+
+    @Mock
+    private InvalidateDirectoryListingPort invalidateDirectoryListingPort;
+
+    @Mock
+    private ResolveItemPathPort resolveItemPathPort;
+
+    @Spy
+    private ItemLockManager itemLockManager = new ItemLockManager(16);
+
+    @Spy
+    private Executor deleteExecutor = new CallingThreadExecutor();
+
     @InjectMocks
     private DirectoryService service;
 
@@ -249,6 +281,33 @@ class DirectoryServiceTest {
         verify(unregisterItemPort).unregister(itemId);
     }
 
+    @Test
+    @Tag("DeleteItemUseCase")
+    @DisplayName("Should trash and unregister Directory when deletion deferred")
+    void test_28() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        assertThatCode(() -> service.deleteItem(new DeleteItemCommand(PARENT_ID, DeleteMode.DEFERRED)))
+                .doesNotThrowAnyException();
+
+        verify(trashItemPort).trashItem(ALPHA_PARENT);
+        verify(deleteItemPort, never()).deleteItem(any());
+        verify(unregisterItemPort).unregister(PARENT_ID);
+    }
+
+    @Test
+    @Tag("DeleteItemUseCase")
+    @DisplayName("Should not unregister Directory when error occur due trashing")
+    void test_29() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+        doThrow(new TestException()).when(trashItemPort).trashItem(ALPHA_PARENT);
+
+        assertThatCode(() -> service.deleteItem(new DeleteItemCommand(PARENT_ID, DeleteMode.DEFERRED)))
+                .isInstanceOf(AbstractServiceException.class);
+
+        verify(unregisterItemPort, never()).unregister(any());
+    }
+
     @Test
     @Tag("DeleteItemUseCase")
     @DisplayName("Should not delete and unregister Directory when id wasn't found")
@@ -467,4 +526,310 @@ class DirectoryServiceTest {
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
-}
\ No newline at end of file
+    @Test
+    @Tag("GetDirectoryListingUseCase")
+    @DisplayName("Should return first page of directory listing")
+    void test_30() {
+        final DirectoryListingPage expectedPage = DirectoryListingPage.of(ALPHA_PARENT, List.of(
+                Directory.builder()
+                        .name("bravo")
+                        .parent(ALPHA_PARENT)
+                        .build()
+        ), true);
+
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+        when(getDirectoryListingPort.getListingPage(ALPHA_PARENT, null, 1)).thenReturn(expectedPage);
+
+        final DirectoryListingPage actual = service.getDirectoryListingPage(
+                new GetDirectoryChildrenQuery(PARENT_ID, 1, null)
+        );
+
+        assertThat(actual)
+                .describedAs("Listing page")
+                .isEqualTo(expectedPage);
+        assertThat(actual.getNextCursor())
+                .describedAs("Cursor of next page")
+                .isPresent();
+    }
+
+    @Test
+    @Tag("GetDirectoryListingUseCase")
+    @DisplayName("Should continue directory listing after item pointed by cursor")
+    void test_31() {
+        final Directory bravo = Directory.builder()
+                .name("bravo")
+                .parent(ALPHA_PARENT)
+                .build();
+        final String cursor = DirectoryListingPage.of(ALPHA_PARENT, List.of(bravo), true)
+                .getNextCursor()
+                .orElseThrow();
+
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+        when(getDirectoryListingPort.getListingPage(ALPHA_PARENT, "bravo", 10))
+                .thenReturn(DirectoryListingPage.of(ALPHA_PARENT, List.of(), false));
+
+        final DirectoryListingPage actual = service.getDirectoryListingPage(
+                new GetDirectoryChildrenQuery(PARENT_ID, 10, cursor)
+        );
+
+        assertThat(actual.getNextCursor())
+                .describedAs("Last page should not have cursor")
+                .isEmpty();
+    }
+
+    @Test
+    @Tag("GetDirectoryListingUseCase")
+    @DisplayName("Should throw exception when page size isn't positive")
+    void test_32() {
+        assertThatCode(() -> service.getDirectoryListingPage(new GetDirectoryChildrenQuery(PARENT_ID, 0, null)))
+                .isInstanceOf(AbstractServiceException.class);
+
+        verify(getDirectoryListingPort, never()).getListingPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @Tag("GetDirectoryListingUseCase")
+    @DisplayName("Should cut page size to maximum")
+    void test_44() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+        when(getDirectoryListingPort.getListingPage(ALPHA_PARENT, null, DirectoryService.MAX_PAGE_SIZE))
+                .thenReturn(DirectoryListingPage.of(ALPHA_PARENT, List.of(), false));
+
+        assertThatCode(() -> service.getDirectoryListingPage(
+                new GetDirectoryChildrenQuery(PARENT_ID, Integer.MAX_VALUE, null)
+        )).doesNotThrowAnyException();
+
+        verify(getDirectoryListingPort).getListingPage(ALPHA_PARENT, null, DirectoryService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    @Tag("GetDirectoryListingUseCase")
+    @DisplayName("Should throw exception when cursor is malformed")
+    void test_33() {
+        assertThatCode(() -> service.getDirectoryListingPage(new GetDirectoryChildrenQuery(PARENT_ID, 10, "%%%")))
+                .isInstanceOf(AbstractServiceException.class);
+
+        verify(getDirectoryListingPort, never()).getListingPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @Tag("CreateDirectoryUseCase")
+    @DisplayName("Should invalidate parent's listing when Directory created")
+    void test_34() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        final Directory actual = service.createDirectory(BRAVO_COMMAND);
+
+        verify(invalidateDirectoryListingPort).invalidateListings(actual);
+    }
+
+    @Test
+    @Tag("DeleteItemUseCase")
+    @DisplayName("Should invalidate listings when Item deleted")
+    void test_35() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        service.deleteItem(new DeleteItemCommand(PARENT_ID));
+
+        verify(invalidateDirectoryListingPort).invalidateListings(ALPHA_PARENT);
+    }
+
+    @Test
+    @Tag("ResolveItemPathUseCase")
+    @DisplayName("Should resolve normalized path of Item")
+    void test_36() {
+        when(resolveItemPathPort.resolvePath(List.of("alpha"))).thenReturn(Optional.of(PARENT_ID));
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        final Item actual = service.resolveItemPath(new ResolveItemPathQuery("/alpha/./bravo/../"));
+
+        assertThat(actual).isEqualTo(ALPHA_PARENT);
+    }
+
+    @Test
+    @Tag("ResolveItemPathUseCase")
+    @DisplayName("Should throw exception when no Item has given path")
+    void test_37() {
+        when(resolveItemPathPort.resolvePath(List.of("alpha", "bravo"))).thenReturn(Optional.empty());
+
+        assertThatCode(() -> service.resolveItemPath(new ResolveItemPathQuery("/alpha/bravo")))
+                .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @Tag("ResolveItemPathUseCase")
+    @DisplayName("Should throw exception when path points outside of catalog or to its root")
+    void test_38() {
+        assertThatCode(() -> service.resolveItemPath(new ResolveItemPathQuery("/alpha/../..")))
+                .isInstanceOf(AbstractServiceException.class);
+        assertThatCode(() -> service.resolveItemPath(new ResolveItemPathQuery("/")))
+                .isInstanceOf(AbstractServiceException.class);
+
+        verify(resolveItemPathPort, never()).resolvePath(any());
+    }
+
+    @Test
+    @Tag("CreateDirectoryUseCase")
+    @DisplayName("Should create and register Directory holding lock of parent")
+    void test_39() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        service.createDirectory(BRAVO_COMMAND);
+
+        verify(itemLockManager).lockDirectory(ALPHA_PARENT);
+    }
+
+    @Test
+    @Tag("DeleteItemUseCase")
+    @DisplayName("Should delete and unregister Item holding lock of its subtree")
+    void test_40() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        service.deleteItem(new DeleteItemCommand(PARENT_ID));
+
+        verify(itemLockManager).lockSubtree(ALPHA_PARENT);
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should delete batch skipping items deleted with their ancestors and unregister all at once")
+    void test_41() {
+        final Directory bravo = Directory.builder().name("bravo").parent(ALPHA_PARENT).build();
+        final File charlie = File.builder().name("charlie").parent(bravo).build();
+        when(getItemByIdPort.getItemById(charlie.getId())).thenReturn(charlie);
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        final List<BatchItemResult<ItemId, Item>> actual = service.deleteItems(
+                new DeleteItemsCommand(List.of(charlie.getId(), PARENT_ID))
+        );
+
+        assertThat(actual)
+                .allMatch(BatchItemResult::isSuccessful)
+                .extracting(BatchItemResult::getKey)
+                .containsExactly(charlie.getId(), PARENT_ID);
+        verify(deleteItemPort, times(1)).deleteItem(any());
+        verify(deleteItemPort).deleteItem(ALPHA_PARENT);
+        verify(unregisterItemPort).unregisterAll(List.of(charlie.getId(), PARENT_ID));
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should report items of batch which weren't found or deleted and unregister only deleted ones")
+    void test_42() {
+        final ItemId missingId = ItemId.newInstanceUUID();
+        final File charlie = File.builder().name("charlie").parent(ALPHA_PARENT).build();
+        final File delta = File.builder().name("delta").parent(ALPHA_PARENT).build();
+        when(getItemByIdPort.getItemById(missingId)).thenThrow(new TestException());
+        when(getItemByIdPort.getItemById(charlie.getId())).thenReturn(charlie);
+        when(getItemByIdPort.getItemById(delta.getId())).thenReturn(delta);
+        doThrow(new UncheckedIOException(new IOException("Test"))).when(deleteItemPort).deleteItem(delta);
+
+        final List<BatchItemResult<ItemId, Item>> actual = service.deleteItems(
+                new DeleteItemsCommand(List.of(missingId, charlie.getId(), delta.getId()))
+        );
+
+        assertThat(actual.get(0).getFailure()).containsInstanceOf(TestException.class);
+        assertThat(actual.get(1).getItem()).contains(charlie);
+        assertThat(actual.get(2).getFailure()).containsInstanceOf(UncheckedIOException.class);
+        verify(unregisterItemPort).unregisterAll(List.of(charlie.getId()));
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should move batch of items to trash when deferred deletion requested")
+    void test_43() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        service.deleteItems(new DeleteItemsCommand(List.of(PARENT_ID), DeleteMode.DEFERRED));
+
+        verify(trashItemPort).trashItem(ALPHA_PARENT);
+        verify(deleteItemPort, never()).deleteItem(any());
+        verify(invalidateDirectoryListingPort).invalidateListings(ALPHA_PARENT);
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should report deleted items which failed to be unregistered as still registered")
+    void test_45() {
+        final File charlie = File.builder().name("charlie").parent(ALPHA_PARENT).build();
+        when(getItemByIdPort.getItemById(charlie.getId())).thenReturn(charlie);
+        doThrow(new TestException()).when(unregisterItemPort).unregisterAll(any());
+
+        final List<BatchItemResult<ItemId, Item>> actual = service.deleteItems(
+                new DeleteItemsCommand(List.of(charlie.getId()))
+        );
+
+        verify(deleteItemPort).deleteItem(charlie);
+        assertThat(actual.get(0).getFailure())
+                .hasValueSatisfying(failure -> assertThat(failure)
+                        .isInstanceOf(AbstractServiceException.class)
+                        .hasMessageContaining("still registered")
+                        .hasCauseInstanceOf(TestException.class));
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should delete batch on delete executor")
+    void test_46() {
+        when(getItemByIdPort.getItemById(PARENT_ID)).thenReturn(ALPHA_PARENT);
+
+        service.deleteItems(new DeleteItemsCommand(List.of(PARENT_ID)));
+
+        verify(deleteExecutor).execute(any());
+        verify(deleteItemPort).deleteItem(ALPHA_PARENT);
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should delete large group of siblings in chunks on delete executor holding lock of their parent")
+    void test_47() {
+        final List<ItemId> ids = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            final File file = File.builder().name("file-" + index).parent(ALPHA_PARENT).build();
+            when(getItemByIdPort.getItemById(file.getId())).thenReturn(file);
+            ids.add(file.getId());
+        }
+
+        final List<BatchItemResult<ItemId, Item>> actual = service.deleteItems(new DeleteItemsCommand(ids));
+
+        assertThat(actual).allMatch(BatchItemResult::isSuccessful);
+        verify(itemLockManager, times(1)).lockDirectory(ALPHA_PARENT);
+        verify(deleteExecutor, atLeast(2)).execute(any());
+        verify(deleteItemPort, times(100)).deleteItem(any());
+        verify(unregisterItemPort).unregisterAll(ids);
+    }
+
+    @Test
+    @Tag("DeleteItemsUseCase")
+    @DisplayName("Should report items of batch whose ancestor failed to be deleted as possibly removed")
+    void test_48() {
+        final Directory bravo = Directory.builder().name("bravo").parent(ALPHA_PARENT).build();
+        final File charlie = File.builder().name("charlie").parent(bravo).build();
+        when(getItemByIdPort.getItemById(bravo.getId())).thenReturn(bravo);
+        when(getItemByIdPort.getItemById(charlie.getId())).thenReturn(charlie);
+        doThrow(new TestException()).when(deleteItemPort).deleteItem(bravo);
+
+        final List<BatchItemResult<ItemId, Item>> actual = service.deleteItems(
+                new DeleteItemsCommand(List.of(bravo.getId(), charlie.getId()))
+        );
+
+        assertThat(actual.get(0).getFailure()).containsInstanceOf(TestException.class);
+        assertThat(actual.get(1).getFailure())
+                .hasValueSatisfying(failure -> assertThat(failure)
+                        .isInstanceOf(AbstractServiceException.class)
+                        .hasMessageContaining("may be removed")
+                        .hasCauseInstanceOf(TestException.class));
+        verify(unregisterItemPort).unregisterAll(List.of());
+    }
+
+    /**
+     * Runs tasks in calling thread, so deletions are observed in order.
+     */
+    static class CallingThreadExecutor implements Executor {
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    }
+}
@@ -5,28 +5,44 @@ import com.artemsirosh.lite.sftp.domain.Item;
 import com.artemsirosh.lite.sftp.domain.ItemId;
 import com.artemsirosh.lite.sftp.errors.AbstractServiceException;
 import com.artemsirosh.lite.sftp.port.outbound.CreateFilePort;
+import com.artemsirosh.lite.sftp.port.outbound.DeleteItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetFileContentPort;
 import com.artemsirosh.lite.sftp.port.outbound.GetItemByIdPort;
+import com.artemsirosh.lite.sftp.port.outbound.InvalidateDirectoryListingPort;
+import com.artemsirosh.lite.sftp.port.outbound.MoveItemPort;
 import com.artemsirosh.lite.sftp.port.outbound.RegisterItemPort;
+import com.artemsirosh.lite.sftp.port.outbound.ReplaceItemPort;
 import com.artemsirosh.lite.sftp.domain.File;
 import com.artemsirosh.lite.sftp.domain.FileContent;
+import com.artemsirosh.lite.sftp.port.inbound.BatchItemResult;
 import com.artemsirosh.lite.sftp.port.inbound.CreateFileCommand;
+import com.artemsirosh.lite.sftp.port.inbound.CreateFilesCommand;
 import com.artemsirosh.lite.sftp.port.inbound.GetFileContentQuery;
 import com.artemsirosh.lite.sftp.port.inbound.UpdateFileCommand;
 import com.artemsirosh.lite.sftp.port.outbound.UpdateFilePort;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
@@ -75,9 +91,29 @@ class FileServiceTest {
     @Mock
     private UpdateFilePort updateFilePort;
 
+    @Mock
+    private InvalidateDirectoryListingPort invalidateDirectoryListingPort;
+
+    @Mock
+    private ReplaceItemPort replaceItemPort;
+
+    @Mock
+    private MoveItemPort moveItemPort;
+
+    @Mock
+    private DeleteItemPort deleteItemPort;
+
+    @Spy
+    private ItemLockManager itemLockManager = new ItemLockManager(16);
+
     @InjectMocks
     private FileService fileService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(replaceItemPort.replace(any(), anyLong())).thenReturn(true);
+    }
+
     @TestFactory
     @Tag("CreateFileUseCase")
     @DisplayName("Should create a new file")
@@ -157,6 +193,26 @@ class FileServiceTest {
         verify(createFilePort).createFile(eq(actual), eq(new FileContent(CAFE_BABE)));
     }
 
+    @Test
+    @Tag("CreateFileUseCase")
+    @DisplayName("Should pass to file create port content channel when content streamed")
+    void test_38() {
+        given(getItemByIdPort.getItemById(eq(PARENT_ID))).willReturn(PARENT);
+        final ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(CAFE_BABE));
+
+        final File actual = fileService.createFile(
+                CreateFileCommand.builder()
+                        .name("charlie")
+                        .lastModified(Instant.now())
+                        .parentId(PARENT_ID)
+                        .contentChannel(channel)
+                        .build()
+        );
+
+        verify(createFilePort).createFileFromChannel(eq(actual), eq(channel));
+        verify(createFilePort, never()).createFile(any(), any());
+    }
+
     @Test
     @Tag("CreateFileUseCase")
     @DisplayName("Shouldn't register item when error thrown")
@@ -291,6 +347,72 @@ class FileServiceTest {
                 .isNotNull();
     }
 
+    @Test
+    @Tag("GetFileContentUseCase")
+    @DisplayName("Should return requested range of file content")
+    void test_41() {
+        final var expectedContent = new FileContent(new byte[]{0xF, 0xE});
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(getFileContentPort.getFileContent(CHARLIE_THE_FILE, 2L, 2L)).willReturn(expectedContent);
+
+        final FileContent actualContent = fileService.getFileContent(
+                new GetFileContentQuery(CHARLIE_THE_FILE.getId(), 2L, 2L)
+        );
+
+        assertThat(actualContent)
+                .isEqualTo(expectedContent);
+        verify(getFileContentPort, never()).getFileContent(any());
+    }
+
+    @Test
+    @Tag("GetFileContentUseCase")
+    @DisplayName("Should read content till the end of file when range length absent")
+    void test_42() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+
+        fileService.getFileContent(new GetFileContentQuery(CHARLIE_THE_FILE.getId(), 4L, null));
+
+        verify(getFileContentPort).getFileContent(CHARLIE_THE_FILE, 4L, Long.MAX_VALUE);
+    }
+
+    @Test
+    @Tag("GetFileContentUseCase")
+    @DisplayName("Should fail when content range is negative")
+    void test_43() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+
+        assertThatCode(() -> fileService.getFileContent(new GetFileContentQuery(CHARLIE_THE_FILE.getId(), -1L, 2L)))
+                .isInstanceOf(AbstractServiceException.class);
+    }
+
+    @Test
+    @Tag("GetFileContentUseCase")
+    @DisplayName("Should return file content channel opened by port")
+    void test_39() {
+        final FileChannel expectedChannel = mock(FileChannel.class);
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(getFileContentPort.openFileContent(CHARLIE_THE_FILE)).willReturn(expectedChannel);
+
+        final FileChannel actualChannel = fileService.openFileContent(
+                new GetFileContentQuery(CHARLIE_THE_FILE.getId())
+        );
+
+        assertThat(actualChannel)
+                .isSameAs(expectedChannel);
+    }
+
+    @Test
+    @Tag("GetFileContentUseCase")
+    @DisplayName("Should fail opening content channel if requested item is directory")
+    void test_40() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+
+        assertThatCode(() -> fileService.openFileContent(new GetFileContentQuery(PARENT_ID)))
+                .isInstanceOf(AbstractServiceException.class);
+
+        verify(getFileContentPort, never()).openFileContent(any());
+    }
+
     @Test
     @Tag("GetFileContentUseCase")
     @DisplayName("Should throw exception if port cannot retrieve content")
@@ -400,7 +522,7 @@ class FileServiceTest {
 
     @Test
     @Tag("UpdateFileUseCase")
-    @DisplayName("Should register new file instance in registry")
+    @DisplayName("Should replace registered file with new file instance")
     void test_10() {
         final FileContent expectedContent = new FileContent(CAFE_BABE);
         final File updatedFile = File.builder()
@@ -423,7 +545,7 @@ class FileServiceTest {
                 .describedAs("Should update file without errors")
                 .doesNotThrowAnyException();
 
-        verify(registerItemPort).register(updatedFile);
+        verify(replaceItemPort).replace(updatedFile, CHARLIE_THE_FILE.getVersion());
     }
 
     @Test
@@ -494,7 +616,9 @@ class FileServiceTest {
         ))
                 .isNotNull();
 
-        verify(registerItemPort, never()).register(any());
+        verify(replaceItemPort).replace(argThat(file -> "delta".equals(file.getName())),
+                eq(CHARLIE_THE_FILE.getVersion()));
+        verify(updateFilePort, never()).updateFileContent(any());
     }
 
     @Test
@@ -701,10 +825,10 @@ class FileServiceTest {
 
     @Test
     @Tag("UpdateFileUseCase")
-    @DisplayName("Should re-throw error when register port rules violated due file updating")
+    @DisplayName("Should re-throw error when replace port rules violated due file updating")
     void test_36() {
         given(getItemByIdPort.getItemById(eq(CHARLIE_THE_FILE.getId()))).willReturn(CHARLIE_THE_FILE);
-        doThrow(new TestException()).when(registerItemPort).register(CHARLIE_THE_FILE);
+        doThrow(new TestException()).when(replaceItemPort).replace(CHARLIE_THE_FILE, CHARLIE_THE_FILE.getVersion());
 
         assertThatCode(
                 () -> fileService.updateFile(
@@ -718,10 +842,10 @@ class FileServiceTest {
 
     @Test
     @Tag("UpdateFileUseCase")
-    @DisplayName("Should re-throw error when register port failures due file updating")
+    @DisplayName("Should re-throw error when replace port failures due file updating")
     void test_37() {
         given(getItemByIdPort.getItemById(eq(CHARLIE_THE_FILE.getId()))).willReturn(CHARLIE_THE_FILE);
-        doThrow(new RuntimeException()).when(registerItemPort).register(CHARLIE_THE_FILE);
+        doThrow(new RuntimeException()).when(replaceItemPort).replace(CHARLIE_THE_FILE, CHARLIE_THE_FILE.getVersion());
         assertThatCode(
                 () -> fileService.updateFile(
                         UpdateFileCommand.builder()
@@ -731,4 +855,359 @@ class FileServiceTest {
         )
                 .isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Tag("CreateFileUseCase")
+    @DisplayName("Should invalidate parent's listing when file created")
+    void test_44() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+
+        final File actual = fileService.createFile(CREATE_CHARLIE_COMMAND);
+
+        verify(invalidateDirectoryListingPort).invalidateListings(actual);
+    }
+
+    @Test
+    @Tag("CreateFileUseCase")
+    @DisplayName("Should not invalidate listing when file creation failed")
+    void test_45() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+        doThrow(new TestException()).when(createFilePort).createFile(any(), any());
+
+        assertThatCode(() -> fileService.createFile(CREATE_CHARLIE_COMMAND))
+                .isInstanceOf(AbstractServiceException.class);
+
+        verify(invalidateDirectoryListingPort, never()).invalidateListings(any());
+    }
+
+    @Test
+    @Tag("CreateFileUseCase")
+    @DisplayName("Should create and register file holding lock of parent")
+    void test_46() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+
+        fileService.createFile(CREATE_CHARLIE_COMMAND);
+
+        verify(itemLockManager).lockDirectory(PARENT);
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should apply update to file replaced concurrently")
+    void test_47() {
+        final File concurrentlyUpdated = File.builder()
+                .id(CHARLIE_THE_FILE.getId())
+                .parent(CHARLIE_THE_FILE.getParent())
+                .name("echo")
+                .modifiedDate(CHARLIE_THE_FILE.getModifiedDate())
+                .version(CHARLIE_THE_FILE.getVersion() + 1)
+                .build();
+        final Instant expectedLastModified = CHARLIE_THE_FILE.getModifiedDate().plusSeconds(1L);
+
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId()))
+                .willReturn(CHARLIE_THE_FILE, concurrentlyUpdated);
+        given(replaceItemPort.replace(any(), eq(CHARLIE_THE_FILE.getVersion()))).willReturn(false);
+
+        final File actual = fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .lastModified(expectedLastModified)
+                        .build()
+        );
+
+        assertThat(actual.getName()).isEqualTo("echo");
+        assertThat(actual.getModifiedDate()).isEqualTo(expectedLastModified);
+        assertThat(actual.getVersion()).isEqualTo(concurrentlyUpdated.getVersion() + 1);
+        verify(replaceItemPort).replace(actual, concurrentlyUpdated.getVersion());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should fail update when file keeps being replaced concurrently")
+    void test_48() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(replaceItemPort.replace(any(), anyLong())).willReturn(false);
+
+        assertThatCode(() -> fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .name("echo")
+                        .build()
+        ))
+                .isInstanceOf(AbstractServiceException.class)
+                .hasMessageContaining("concurrently modified");
+    }
+
+    @Test
+    @Tag("CreateFilesUseCase")
+    @DisplayName("Should create batch of files with one port call and register them at once")
+    void test_49() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+
+        final List<BatchItemResult<String, File>> actual = fileService.createFiles(CreateFilesCommand.builder()
+                .parentId(PARENT_ID)
+                .file(new CreateFilesCommand.NewFile("delta", null, CAFE_BABE))
+                .file(new CreateFilesCommand.NewFile("echo", null, CAFE_BABE))
+                .build());
+
+        assertThat(actual)
+                .allMatch(BatchItemResult::isSuccessful)
+                .extracting(BatchItemResult::getKey)
+                .containsExactly("delta", "echo");
+        verify(getItemByIdPort, times(1)).getItemById(PARENT_ID);
+        verify(createFilePort, times(1)).createFiles(argThat(files -> files.size() == 2));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<File>> registered = ArgumentCaptor.forClass(Collection.class);
+        verify(registerItemPort).registerAll(registered.capture());
+        assertThat(registered.getValue())
+                .extracting(File::getName)
+                .containsExactly("delta", "echo");
+    }
+
+    @Test
+    @Tag("CreateFilesUseCase")
+    @DisplayName("Should report failed files of batch and register only created ones")
+    void test_50() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+        given(createFilePort.createFiles(any())).willAnswer(invocation -> {
+            final Map<File, FileContent> files = invocation.getArgument(0);
+            final File failed = files.keySet().stream()
+                    .filter(file -> file.getName().equals("delta"))
+                    .findFirst()
+                    .orElseThrow();
+            return Map.of(failed.getId(), new TestException());
+        });
+
+        final List<BatchItemResult<String, File>> actual = fileService.createFiles(CreateFilesCommand.builder()
+                .parentId(PARENT_ID)
+                .file(new CreateFilesCommand.NewFile("delta", null, CAFE_BABE))
+                .file(new CreateFilesCommand.NewFile("echo", null, CAFE_BABE))
+                .build());
+
+        assertThat(actual.get(0).getFailure()).containsInstanceOf(TestException.class);
+        assertThat(actual.get(1).getItem()).hasValueSatisfying(file -> assertThat(file.getName()).isEqualTo("echo"));
+        verify(registerItemPort).registerAll(argThat(files -> files.size() == 1));
+    }
+
+    @Test
+    @Tag("CreateFilesUseCase")
+    @DisplayName("Should reject files of batch with duplicate names")
+    void test_51() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+
+        final List<BatchItemResult<String, File>> actual = fileService.createFiles(CreateFilesCommand.builder()
+                .parentId(PARENT_ID)
+                .file(new CreateFilesCommand.NewFile("delta", null, CAFE_BABE))
+                .file(new CreateFilesCommand.NewFile("delta", null, CAFE_BABE))
+                .build());
+
+        assertThat(actual).noneMatch(BatchItemResult::isSuccessful);
+        verify(createFilePort, never()).createFiles(any());
+        verify(registerItemPort, never()).registerAll(any());
+    }
+
+    @Test
+    @Tag("CreateFilesUseCase")
+    @DisplayName("Should not create batch of files when parent isn't directory")
+    void test_52() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+
+        assertThatCode(() -> fileService.createFiles(CreateFilesCommand.builder()
+                .parentId(CHARLIE_THE_FILE.getId())
+                .file(new CreateFilesCommand.NewFile("delta", null, CAFE_BABE))
+                .build()))
+                .isInstanceOf(AbstractServiceException.class);
+        verify(createFilePort, never()).createFiles(any());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should move file on disk when it renamed")
+    void test_53() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+
+        final File actual = fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .name("delta")
+                        .build()
+        );
+
+        verify(moveItemPort).moveItem(CHARLIE_THE_FILE, actual);
+        verify(invalidateDirectoryListingPort).invalidateListings(CHARLIE_THE_FILE);
+        verify(invalidateDirectoryListingPort).invalidateListings(actual);
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should move file to another directory holding locks of both directories")
+    void test_54() {
+        final Directory target = Directory.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("foxtrot")
+                .build();
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(getItemByIdPort.getItemById(target.getId())).willReturn(target);
+
+        final File actual = fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .parentId(target.getId())
+                        .build()
+        );
+
+        assertThat(actual.getParent()).isEqualTo(target);
+        assertThat(actual.getName()).isEqualTo(CHARLIE_THE_FILE.getName());
+        verify(moveItemPort).moveItem(CHARLIE_THE_FILE, actual);
+        verify(itemLockManager).lockDirectories(PARENT, target);
+        verify(replaceItemPort).replace(actual, CHARLIE_THE_FILE.getVersion());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should not move file when its name and parent are unchanged")
+    void test_55() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+
+        fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .name(CHARLIE_THE_FILE.getName())
+                        .lastModified(Instant.parse("2017-07-12T22:00:00Z"))
+                        .build()
+        );
+
+        verify(moveItemPort, never()).moveItem(any(), any());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should not move file to item which isn't directory")
+    void test_56() {
+        final File target = File.builder()
+                .id(ItemId.newInstanceUUID())
+                .name("golf")
+                .build();
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(getItemByIdPort.getItemById(target.getId())).willReturn(target);
+
+        assertThatCode(() -> fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .parentId(target.getId())
+                        .build()
+        ))
+                .isInstanceOf(AbstractServiceException.class);
+        verify(moveItemPort, never()).moveItem(any(), any());
+        verify(replaceItemPort, never()).replace(any(), anyLong());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should move file back and move it again from its new path when file renamed concurrently")
+    void test_57() {
+        final File concurrentlyRenamed = File.builder()
+                .id(CHARLIE_THE_FILE.getId())
+                .parent(CHARLIE_THE_FILE.getParent())
+                .name("echo")
+                .modifiedDate(CHARLIE_THE_FILE.getModifiedDate())
+                .version(CHARLIE_THE_FILE.getVersion() + 1)
+                .build();
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId()))
+                .willReturn(CHARLIE_THE_FILE, concurrentlyRenamed);
+        given(replaceItemPort.replace(any(), eq(CHARLIE_THE_FILE.getVersion()))).willReturn(false);
+
+        final File actual = fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .name("delta")
+                        .build()
+        );
+
+        assertThat(actual.getVersion()).isEqualTo(concurrentlyRenamed.getVersion() + 1);
+        verify(moveItemPort).moveItem(eq(CHARLIE_THE_FILE), argThat(file -> "delta".equals(file.getName())));
+        verify(moveItemPort).moveItem(argThat(file -> "delta".equals(file.getName())), eq(CHARLIE_THE_FILE));
+        verify(moveItemPort).moveItem(concurrentlyRenamed, actual);
+        verify(updateFilePort, times(1)).updateFile(any());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should move file back when registry fails to replace it")
+    void test_58() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(replaceItemPort.replace(any(), anyLong())).willThrow(new TestException());
+
+        assertThatCode(() -> fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .name("delta")
+                        .build()
+        ))
+                .isInstanceOf(TestException.class);
+        verify(moveItemPort).moveItem(eq(CHARLIE_THE_FILE), argThat(file -> "delta".equals(file.getName())));
+        verify(moveItemPort).moveItem(argThat(file -> "delta".equals(file.getName())), eq(CHARLIE_THE_FILE));
+    }
+
+    @Test
+    @Tag("CreateFilesUseCase")
+    @DisplayName("Should report batch files as failed and delete them when registration fails")
+    void test_59() {
+        given(getItemByIdPort.getItemById(PARENT_ID)).willReturn(PARENT);
+        doThrow(new TestException()).when(registerItemPort).registerAll(any());
+
+        final List<BatchItemResult<String, File>> actual = fileService.createFiles(CreateFilesCommand.builder()
+                .parentId(PARENT_ID)
+                .file(new CreateFilesCommand.NewFile("delta", null, CAFE_BABE))
+                .file(new CreateFilesCommand.NewFile("echo", null, CAFE_BABE))
+                .build());
+
+        assertThat(actual)
+                .noneMatch(BatchItemResult::isSuccessful)
+                .allMatch(result -> result.getFailure().filter(TestException.class::isInstance).isPresent());
+        verify(deleteItemPort).deleteItem(argThat(item -> "delta".equals(item.getName())));
+        verify(deleteItemPort).deleteItem(argThat(item -> "echo".equals(item.getName())));
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should update file which isn't moved w/o locks and write it only after it replaced")
+    void test_60() {
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(replaceItemPort.replace(any(), anyLong())).willReturn(false);
+
+        assertThatCode(() -> fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .lastModified(Instant.parse("2017-07-12T22:00:00Z"))
+                        .content(CAFE_BABE)
+                        .build()
+        ))
+                .isInstanceOf(AbstractServiceException.class);
+        verify(itemLockManager, never()).lockDirectories(any(), any());
+        verify(updateFilePort, never()).updateFile(any());
+        verify(updateFilePort, never()).updateFileContent(any());
+        verify(invalidateDirectoryListingPort, never()).invalidateListings(any());
+    }
+
+    @Test
+    @Tag("UpdateFileUseCase")
+    @DisplayName("Should report failure to move file back as suppressed by replacement failure")
+    void test_61() {
+        final TestException undoFailure = new TestException();
+        given(getItemByIdPort.getItemById(CHARLIE_THE_FILE.getId())).willReturn(CHARLIE_THE_FILE);
+        given(replaceItemPort.replace(any(), anyLong())).willThrow(new TestException());
+        doThrow(undoFailure).when(moveItemPort).moveItem(any(), eq(CHARLIE_THE_FILE));
+
+        assertThatCode(() -> fileService.updateFile(
+                UpdateFileCommand.builder()
+                        .fileId(CHARLIE_THE_FILE.getId())
+                        .name("delta")
+                        .build()
+        ))
+                .isInstanceOf(TestException.class)
+                .isNotSameAs(undoFailure)
+                .satisfies(exc -> assertThat(exc.getSuppressed()).containsExactly(undoFailure));
+    }
+}
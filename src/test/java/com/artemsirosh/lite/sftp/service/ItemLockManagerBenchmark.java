@@ -0,0 +1,88 @@
+package com.artemsirosh.lite.sftp.service;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measures contention of 64 threads changing catalog: each thread changes
+ * random directory of 4096 nested into 64 top level directories, holding
+ * lock while doing small amount of work, as registry update would. Compares
+ * {@link ItemLockManager} with single global lock, and with all threads
+ * changing the same directory. Run with {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class ItemLockManagerBenchmark {
+
+    private static final int DIRECTORY_COUNT = 4096;
+    private static final int WORK_TOKENS = 200;
+
+    private final ItemLockManager itemLockManager = new ItemLockManager(1024);
+    private final ReentrantLock globalLock = new ReentrantLock();
+    private Directory[] directories;
+
+    @Setup
+    public void setUp() {
+        final Directory[] topLevel = new Directory[64];
+        for (int i = 0; i < topLevel.length; i++) {
+            topLevel[i] = Directory.builder().name("top-" + i).build();
+        }
+
+        directories = new Directory[DIRECTORY_COUNT];
+        for (int i = 0; i < DIRECTORY_COUNT; i++) {
+            directories[i] = Directory.builder().name("directory-" + i).parent(topLevel[i % topLevel.length]).build();
+        }
+    }
+
+    @Benchmark
+    public void stripedDifferentDirectories() {
+        final Directory directory = directories[ThreadLocalRandom.current().nextInt(DIRECTORY_COUNT)];
+        try (ItemLockManager.HeldLocks ignored = itemLockManager.lockDirectory(directory)) {
+            Blackhole.consumeCPU(WORK_TOKENS);
+        }
+    }
+
+    @Benchmark
+    public void stripedSameDirectory() {
+        try (ItemLockManager.HeldLocks ignored = itemLockManager.lockDirectory(directories[0])) {
+            Blackhole.consumeCPU(WORK_TOKENS);
+        }
+    }
+
+    @Benchmark
+    public void globalLock() {
+        globalLock.lock();
+        try {
+            Blackhole.consumeCPU(WORK_TOKENS);
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ItemLockManagerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
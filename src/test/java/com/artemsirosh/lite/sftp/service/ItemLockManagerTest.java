@@ -0,0 +1,69 @@
+package com.artemsirosh.lite.sftp.service;
+
+import com.artemsirosh.lite.sftp.domain.Directory;
+import com.artemsirosh.lite.sftp.domain.File;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class ItemLockManagerTest {
+
+    private static final Directory ALPHA_DIR = Directory.builder().name("alpha").build();
+    private static final Directory BRAVO_DIR = Directory.builder().name("bravo").parent(ALPHA_DIR).build();
+    private static final Directory CHARLIE_DIR = Directory.builder().name("charlie").parent(ALPHA_DIR).build();
+    private static final File DELTA_FILE = File.builder().name("delta").parent(BRAVO_DIR).build();
+
+    @Test
+    @DisplayName("Should not block operations in different directories")
+    void test_00() throws Exception {
+        final var manager = new ItemLockManager(1024);
+
+        try (ItemLockManager.HeldLocks ignored = manager.lockDirectory(BRAVO_DIR)) {
+            assertThat(lockInOtherThread(() -> manager.lockDirectory(CHARLIE_DIR)).get(5L, TimeUnit.SECONDS))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should block changes beneath deleted subtree until deletion completes")
+    void test_01() throws Exception {
+        final var manager = new ItemLockManager(1024);
+
+        final CompletableFuture<Boolean> create;
+        try (ItemLockManager.HeldLocks ignored = manager.lockSubtree(ALPHA_DIR)) {
+            create = lockInOtherThread(() -> manager.lockDirectory(BRAVO_DIR));
+            assertThatCode(() -> create.get(200L, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        }
+
+        assertThat(create.get(5L, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should lock item exclusively when its stripe is shared with ancestors")
+    void test_02() throws Exception {
+        final var manager = new ItemLockManager(1);
+
+        try (ItemLockManager.HeldLocks ignored = manager.lockSubtree(DELTA_FILE)) {
+            final CompletableFuture<Boolean> create = lockInOtherThread(() -> manager.lockDirectory(CHARLIE_DIR));
+            assertThatCode(() -> create.get(200L, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        }
+    }
+
+    private static CompletableFuture<Boolean> lockInOtherThread(final LockAction action) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (ItemLockManager.HeldLocks ignored = action.lock()) {
+                return true;
+            }
+        });
+    }
+
+    private interface LockAction {
+        ItemLockManager.HeldLocks lock();
+    }
+}